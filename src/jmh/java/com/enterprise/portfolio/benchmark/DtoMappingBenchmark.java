@@ -0,0 +1,68 @@
+package com.enterprise.portfolio.benchmark;
+
+import com.enterprise.portfolio.dto.UserDto;
+import com.enterprise.portfolio.mapper.UserMapper;
+import com.enterprise.portfolio.model.Role;
+import com.enterprise.portfolio.model.User;
+import com.enterprise.portfolio.repository.UserRepository;
+import com.enterprise.portfolio.service.impl.BaseServiceImpl;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row entity to DTO conversion cost: reflective ModelMapper (the former {@link BaseServiceImpl#toDto})
+ * against the generated MapStruct mapper now used by {@link BaseServiceImpl}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private UserMappingService service;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        service = new UserMappingService(Mappers.getMapper(UserMapper.class));
+
+        Role role = new Role();
+        role.setId(1L);
+        role.setName("ROLE_USER");
+        Set<Role> roles = new HashSet<>();
+        roles.add(role);
+
+        user = new User("benchmark", "benchmark@example.com", "hash");
+        user.setId(42L);
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        user.setLastLogin(LocalDateTime.now());
+        user.setRoles(roles);
+    }
+
+    @Benchmark
+    public UserDto modelMapperToDto() {
+        return modelMapper.map(user, UserDto.class);
+    }
+
+    @Benchmark
+    public UserDto mapStructToDto() {
+        return service.toDto(user);
+    }
+
+    static class UserMappingService extends BaseServiceImpl<UserDto, User, Long, UserRepository> {
+        UserMappingService(UserMapper mapper) {
+            super(null, mapper, User.class, UserDto.class);
+        }
+    }
+}
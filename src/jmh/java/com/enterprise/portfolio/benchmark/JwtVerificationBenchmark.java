@@ -0,0 +1,81 @@
+package com.enterprise.portfolio.benchmark;
+
+import com.enterprise.portfolio.config.JwtConfig;
+import com.enterprise.portfolio.security.JwtTokenVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token verification: the former double parse (validate, then parse again for the subject)
+ * against the shared {@link JwtTokenVerifier}, with and without its verification cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private String secret;
+    private String token;
+    private JwtTokenVerifier uncachedVerifier;
+    private JwtTokenVerifier cachedVerifier;
+
+    @Setup
+    public void setUp() {
+        secret = Encoders.BASE64.encode(Keys.secretKeyFor(io.jsonwebtoken.SignatureAlgorithm.HS256).getEncoded());
+
+        uncachedVerifier = new JwtTokenVerifier(config(0));
+        cachedVerifier = new JwtTokenVerifier(config(10_000));
+
+        token = Jwts.builder()
+                .setSubject("benchmark-user")
+                .claim("uid", 42L)
+                .claim("roles", List.of("ROLE_USER"))
+                .claim("ver", 0)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(uncachedVerifier.getSigningKey())
+                .compact();
+    }
+
+    @Benchmark
+    public String legacyDoubleParse() {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Optional<Claims> sharedParser() {
+        return uncachedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> sharedParserWithCache() {
+        return cachedVerifier.verify(token);
+    }
+
+    private JwtConfig config(long cacheSize) {
+        JwtConfig config = new JwtConfig();
+        config.setSecret(secret);
+        config.setVerificationCacheSize(cacheSize);
+        return config;
+    }
+}
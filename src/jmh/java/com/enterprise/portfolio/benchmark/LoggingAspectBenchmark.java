@@ -0,0 +1,44 @@
+package com.enterprise.portfolio.benchmark;
+
+import com.enterprise.portfolio.aspect.LoggingAspect;
+import com.enterprise.portfolio.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link LoggingAspect#logAround} around a cheap service call, against the same call unproxied.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+
+    private MetricsService direct;
+    private MetricsService advised;
+
+    @Setup
+    public void setUp() {
+        direct = new MetricsService(new SimpleMeterRegistry());
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(direct);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect());
+        advised = factory.getProxy();
+    }
+
+    @Benchmark
+    public double direct() {
+        return direct.getCounterValue("benchmark.counter");
+    }
+
+    @Benchmark
+    public double logAround() {
+        return advised.getCounterValue("benchmark.counter");
+    }
+}
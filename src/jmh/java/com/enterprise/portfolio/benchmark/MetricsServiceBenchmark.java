@@ -0,0 +1,39 @@
+package com.enterprise.portfolio.benchmark;
+
+import com.enterprise.portfolio.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path metric recording as done by {@code RequestResponseLoggingFilter} on every request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MetricsServiceBenchmark {
+
+    private MetricsService metricsService;
+
+    @Setup
+    public void setUp() {
+        metricsService = new MetricsService(new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void incrementCounter() {
+        metricsService.incrementCounter("http.requests.total",
+                "method", "GET", "path", "/api/portfolios", "status", "200");
+    }
+
+    @Benchmark
+    public void recordTime() {
+        metricsService.recordTime("http.request.duration", 12, TimeUnit.MILLISECONDS,
+                "method", "GET", "path", "/api/portfolios");
+    }
+}
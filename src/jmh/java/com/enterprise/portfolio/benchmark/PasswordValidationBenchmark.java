@@ -0,0 +1,47 @@
+package com.enterprise.portfolio.benchmark;
+
+import com.enterprise.portfolio.validation.PasswordConstraintValidator;
+import com.enterprise.portfolio.validation.ValidPassword;
+import jakarta.validation.ConstraintValidatorContext;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registration / change-password validation cost for an accepted and a rejected password.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordValidationBenchmark {
+
+    @ValidPassword
+    private String annotated;
+
+    private PasswordConstraintValidator validator;
+    private ConstraintValidatorContext context;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        validator = new PasswordConstraintValidator();
+        validator.initialize(PasswordValidationBenchmark.class
+                .getDeclaredField("annotated")
+                .getAnnotation(ValidPassword.class));
+        context = Mockito.mock(ConstraintValidatorContext.class, Answers.RETURNS_DEEP_STUBS);
+    }
+
+    @Benchmark
+    public boolean validPassword() {
+        return validator.isValid("Tr0ub4dor&Horse!", context);
+    }
+
+    @Benchmark
+    public boolean invalidPassword() {
+        return validator.isValid("abcdefgh", context);
+    }
+}
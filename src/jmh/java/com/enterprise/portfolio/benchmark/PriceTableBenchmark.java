@@ -0,0 +1,99 @@
+package com.enterprise.portfolio.benchmark;
+
+import com.enterprise.portfolio.model.Asset;
+import com.enterprise.portfolio.service.PriceTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price reads for one portfolio valuation pass: {@link PriceTable} snapshot lookups against reading
+ * {@code BigDecimal} prices from {@link Asset} entities, the path valuation used to take.
+ * <p>
+ * The entity side runs against already-loaded entities, so it excludes the proxy initialization and
+ * database round trips of the real path and is a lower bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceTableBenchmark {
+
+    @Param({"1000", "100000"})
+    private int assets;
+
+    @Param({"50"})
+    private int holdings;
+
+    private PriceTable priceTable;
+    private Map<Long, Asset> entities;
+    private long[] holdingAssetIds;
+
+    @Setup
+    public void setUp() {
+        priceTable = new PriceTable(null);
+        entities = new HashMap<>();
+        List<PriceTable.Update> updates = new ArrayList<>(assets);
+        LocalDateTime now = LocalDateTime.now();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long id = 1; id <= assets; id++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextLong(1, 10_000_000_000L), PriceTable.SCALE);
+            updates.add(new PriceTable.Update(id, price, now));
+            Asset asset = Asset.builder().symbol("SYM" + id).name("Asset " + id)
+                    .type(Asset.AssetType.STOCK).currentPrice(price).priceUpdatedAt(now).build();
+            asset.setId(id);
+            entities.put(id, asset);
+        }
+        priceTable.update(updates);
+
+        holdingAssetIds = new long[holdings];
+        for (int i = 0; i < holdings; i++) {
+            holdingAssetIds[i] = random.nextLong(1, assets + 1);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal entityPrices() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (long assetId : holdingAssetIds) {
+            BigDecimal price = entities.get(assetId).getCurrentPrice();
+            if (price != null) {
+                sum = sum.add(price);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long priceTable() {
+        PriceTable.Snapshot snapshot = priceTable.snapshot();
+        long sum = 0;
+        for (long assetId : holdingAssetIds) {
+            long price = snapshot.price(assetId);
+            if (price != PriceTable.MISSING) {
+                sum += price;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void priceTableConcurrentWithUpdates(Blackhole blackhole) {
+        // Readers keep going while another thread publishes new snapshots
+        if (ThreadLocalRandom.current().nextInt(1000) == 0) {
+            priceTable.update(List.of(new PriceTable.Update(holdingAssetIds[0], BigDecimal.ONE, LocalDateTime.now())));
+        }
+        blackhole.consume(priceTable());
+    }
+}
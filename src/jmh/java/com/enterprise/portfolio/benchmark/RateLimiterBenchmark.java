@@ -0,0 +1,42 @@
+package com.enterprise.portfolio.benchmark;
+
+import com.enterprise.portfolio.security.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rate limit check under 64 concurrent request threads, spread over many client keys (the common
+ * case) or hammering a few (one abusive client behind many connections, where stripes do contend).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"16", "100000"})
+    private int clients;
+
+    private TokenBucketLimiter limiter;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        // Generous limit, so the allow path is measured rather than rejections only
+        limiter = new TokenBucketLimiter(1_000, 1_000_000, 64);
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10." + (i >>> 16 & 0xFF) + "." + (i >>> 8 & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return limiter.tryAcquire(addresses[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+}
@@ -0,0 +1,90 @@
+package com.enterprise.portfolio.benchmark;
+
+import com.enterprise.portfolio.config.JwtConfig;
+import com.enterprise.portfolio.filter.RequestResponseLoggingFilter;
+import com.enterprise.portfolio.security.JwtAuthenticationFilter;
+import com.enterprise.portfolio.security.JwtTokenVerifier;
+import com.enterprise.portfolio.security.TokenVersionRegistry;
+import com.enterprise.portfolio.service.MetricsService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter overhead per request: JWT authentication from token claims and request/response logging.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestFilterBenchmark {
+
+    private static final byte[] BODY = "{\"name\":\"Retirement\",\"description\":\"Long term\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private JwtAuthenticationFilter jwtFilter;
+    private RequestResponseLoggingFilter loggingFilter;
+    private String bearer;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()));
+        JwtTokenVerifier verifier = new JwtTokenVerifier(jwtConfig);
+
+        jwtFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(jwtFilter, "tokenVerifier", verifier);
+        ReflectionTestUtils.setField(jwtFilter, "tokenVersionRegistry", new TokenVersionRegistry(null, null));
+
+        loggingFilter = new RequestResponseLoggingFilter(new MetricsService(new SimpleMeterRegistry()));
+
+        bearer = "Bearer " + Jwts.builder()
+                .setSubject("benchmark-user")
+                .claim("uid", 42L)
+                .claim("roles", List.of("ROLE_USER"))
+                .claim("ver", 0)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(verifier.getSigningKey())
+                .compact();
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse jwtAuthenticationFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/portfolios");
+        request.addHeader("Authorization", bearer);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse requestResponseLoggingFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/portfolios");
+        request.setContentType("application/json");
+        request.setContent(BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        loggingFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
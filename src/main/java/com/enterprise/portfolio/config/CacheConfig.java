@@ -0,0 +1,31 @@
+package com.enterprise.portfolio.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String USER_PRINCIPALS = "userPrincipals";
+
+    /**
+     * Caches with their own bounds on top of the global {@code spring.cache.caffeine.spec}.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> caffeineCacheCustomizer(
+            @Value("${app.cache.user-principals.maximum-size:10000}") long principalMaxSize,
+            @Value("${app.cache.user-principals.ttl:5m}") Duration principalTtl) {
+        return cacheManager -> cacheManager.registerCustomCache(USER_PRINCIPALS,
+                Caffeine.newBuilder()
+                        .maximumSize(principalMaxSize)
+                        .expireAfterWrite(principalTtl)
+                        .recordStats()
+                        .build());
+    }
+}
@@ -13,4 +13,5 @@ public class JwtConfig {
     private long refreshExpirationMs;
     private String tokenPrefix;
     private String headerString;
+    private long verificationCacheSize = 10000;
 }
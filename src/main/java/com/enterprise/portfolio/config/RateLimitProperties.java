@@ -0,0 +1,37 @@
+package com.enterprise.portfolio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token bucket limits per route prefix. A request is limited by the route with the longest matching prefix;
+ * either limit of a route may be omitted.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    /** Lock stripes per limiter; rounded up to a power of two. */
+    private int stripes = 64;
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        /** Path within the application, e.g. {@code /api/auth/signin}. */
+        private String prefix;
+        private Limit perIp;
+        private Limit perUser;
+    }
+
+    @Data
+    public static class Limit {
+        /** Burst size. */
+        private long capacity;
+        private double refillPerSecond;
+    }
+}
@@ -1,9 +1,15 @@
 package com.enterprise.portfolio.config;
 
+import com.enterprise.portfolio.security.BoundedPasswordEncoder;
 import com.enterprise.portfolio.security.CustomUserDetailsService;
 import com.enterprise.portfolio.security.JwtAuthenticationEntryPoint;
 import com.enterprise.portfolio.security.JwtAuthenticationFilter;
+import com.enterprise.portfolio.security.RateLimitFilter;
+import com.enterprise.portfolio.security.RehashingAuthenticationProvider;
+import com.enterprise.portfolio.service.MetricsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,7 +20,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -30,25 +35,48 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
+        // Re-encodes hashes with an outdated BCrypt cost on successful login, unless the hashing pool is full
+        DaoAuthenticationProvider authProvider = new RehashingAuthenticationProvider(customUserDetailsService);
         authProvider.setUserDetailsService(customUserDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
+    /**
+     * The JWT filter is a bean for its dependencies but runs inside the security chain only, not a second
+     * time as a plain servlet filter.
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
         return authConfig.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt on a bounded pool sized to the cores by default, so login bursts cannot starve request threads.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            MetricsService metricsService,
+            @Value("${app.security.password.bcrypt-strength:10}") int strength,
+            @Value("${app.security.password.hashing-threads:0}") int threads,
+            @Value("${app.security.password.hashing-queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password.retry-after-seconds:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(strength, poolSize, queueCapacity, retryAfterSeconds, metricsService);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider,
+                                           RateLimitProperties rateLimitProperties,
+                                           MetricsService metricsService) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .cors(AbstractHttpConfigurer::disable)
@@ -80,8 +108,14 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             );
 
-        http.authenticationProvider(authenticationProvider());
+        http.authenticationProvider(authenticationProvider);
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // Not beans, so they only run inside the security chain: client limit before token verification,
+        // user limit once the caller is known
+        http.addFilterBefore(new RateLimitFilter(RateLimitFilter.Scope.CLIENT_IP, rateLimitProperties, metricsService),
+                JwtAuthenticationFilter.class);
+        http.addFilterAfter(new RateLimitFilter(RateLimitFilter.Scope.USER, rateLimitProperties, metricsService),
+                JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,34 @@
+package com.enterprise.portfolio.controller;
+
+import com.enterprise.portfolio.dto.PriceBarDto;
+import com.enterprise.portfolio.exception.ResourceNotFoundException;
+import com.enterprise.portfolio.repository.AssetRepository;
+import com.enterprise.portfolio.service.PriceHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/assets")
+@RequiredArgsConstructor
+public class AssetController {
+
+    private final AssetRepository assetRepository;
+    private final PriceHistoryService priceHistoryService;
+
+    @GetMapping("/{id}/prices")
+    public ResponseEntity<List<PriceBarDto>> getPriceHistory(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1h") String resolution) {
+        if (!assetRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Asset", "id", id.toString());
+        }
+        return ResponseEntity.ok(priceHistoryService.getSeries(id, from, to, resolution));
+    }
+}
@@ -1,16 +1,41 @@
 package com.enterprise.portfolio.controller;
 
+import com.enterprise.portfolio.dto.CursorPageDto;
+import com.enterprise.portfolio.dto.PortfolioAnalyticsDto;
 import com.enterprise.portfolio.dto.PortfolioDto;
+import com.enterprise.portfolio.dto.PortfolioSummaryDto;
+import com.enterprise.portfolio.dto.PortfolioValuationDto;
+import com.enterprise.portfolio.dto.PortfolioValueSeriesDto;
+import com.enterprise.portfolio.dto.RebalanceBatchRequestDto;
+import com.enterprise.portfolio.dto.RebalanceModelDto;
+import com.enterprise.portfolio.dto.RebalancePlanDto;
+import com.enterprise.portfolio.dto.TransactionDto;
+import com.enterprise.portfolio.dto.TransactionImportResultDto;
+import com.enterprise.portfolio.dto.UserValueSeriesDto;
+import com.enterprise.portfolio.model.Transaction;
+import com.enterprise.portfolio.security.UserPrincipal;
 import com.enterprise.portfolio.service.PortfolioService;
+import com.enterprise.portfolio.service.RebalanceService;
+import com.enterprise.portfolio.service.TransactionExportService;
+import com.enterprise.portfolio.service.TransactionImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/portfolios")
@@ -18,26 +43,147 @@ import java.util.List;
 public class PortfolioController {
 
     private final PortfolioService portfolioService;
+    private final TransactionExportService transactionExportService;
+    private final RebalanceService rebalanceService;
 
     @GetMapping
-    public ResponseEntity<List<PortfolioDto>> getUserPortfolios(@AuthenticationPrincipal UserDetails userDetails) {
-        Long userId = Long.parseLong(userDetails.getUsername());
+    public ResponseEntity<List<PortfolioDto>> getUserPortfolios(@AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
         return ResponseEntity.ok(portfolioService.getUserPortfolios(userId));
     }
 
+    @GetMapping(params = "view=summary")
+    public ResponseEntity<List<PortfolioSummaryDto>> getUserPortfolioSummaries(
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(portfolioService.getUserPortfolioSummaries(userId));
+    }
+
+    @GetMapping("/value-series")
+    public ResponseEntity<UserValueSeriesDto> getUserValueSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(portfolioService.getUserValueSeries(userId, from, to));
+    }
+
+    /**
+     * Dry-run plans for many portfolios against one model.
+     */
+    @PostMapping("/rebalance/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RebalancePlanDto>> planRebalanceBatch(@Valid @RequestBody RebalanceBatchRequestDto request) {
+        return ResponseEntity.ok(rebalanceService.planBatch(request));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PortfolioDto> getPortfolio(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        Long userId = Long.parseLong(userDetails.getUsername());
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
         return ResponseEntity.ok(portfolioService.getPortfolio(id, userId));
     }
 
+    @GetMapping("/{id}/valuation")
+    public ResponseEntity<PortfolioValuationDto> getPortfolioValuation(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(portfolioService.getPortfolioValuation(id, userId));
+    }
+
+    @PostMapping("/{id}/ledger/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildHoldings(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
+        long replayed = portfolioService.rebuildHoldings(id, userId);
+        return ResponseEntity.ok(Map.of("replayedTransactions", replayed));
+    }
+
+    @PostMapping("/{id}/rebalance")
+    public ResponseEntity<RebalancePlanDto> rebalance(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean execute,
+            @Valid @RequestBody RebalanceModelDto model,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(portfolioService.rebalance(id, userId, model, execute));
+    }
+
+    @GetMapping("/{id}/analytics")
+    public ResponseEntity<PortfolioAnalyticsDto> getAnalytics(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(portfolioService.getAnalytics(id, userId, from, to));
+    }
+
+    @GetMapping("/{id}/value-series")
+    public ResponseEntity<PortfolioValueSeriesDto> getValueSeries(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(portfolioService.getValueSeries(id, userId, from, to));
+    }
+
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<CursorPageDto<TransactionDto>> getTransactions(
+            @PathVariable Long id,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestParam(required = false) Long assetId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(portfolioService.getTransactionHistory(id, userId, type, assetId, from, to, cursor, size));
+    }
+
+    @PostMapping(value = "/{id}/transactions/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<TransactionImportResultDto> importTransactions(
+            @PathVariable Long id,
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserPrincipal principal) throws IOException {
+        Long userId = principal.getId();
+        TransactionImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("application/x-ndjson"))
+                ? TransactionImportService.Format.NDJSON
+                : TransactionImportService.Format.CSV;
+        return ResponseEntity.ok(portfolioService.importTransactions(id, userId, format, request.getInputStream()));
+    }
+
+    @GetMapping("/{id}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
+        // Resolve ownership before the response is committed; the body is written on the async thread
+        PortfolioDto portfolio = portfolioService.getPortfolio(id, userId);
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        TransactionImportService.Format exportFormat = ndjson
+                ? TransactionImportService.Format.NDJSON
+                : TransactionImportService.Format.CSV;
+        StreamingResponseBody body = out -> transactionExportService.exportTransactions(portfolio.getId(), exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"portfolio-" + portfolio.getId() + (ndjson ? ".ndjson" : ".csv") + "\"")
+                .body(body);
+    }
+
     @PostMapping
     public ResponseEntity<PortfolioDto> createPortfolio(
             @Valid @RequestBody PortfolioDto portfolioDto,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        Long userId = Long.parseLong(userDetails.getUsername());
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
         PortfolioDto createdPortfolio = portfolioService.createPortfolio(portfolioDto, userId);
         return new ResponseEntity<>(createdPortfolio, HttpStatus.CREATED);
     }
@@ -46,16 +192,16 @@ public class PortfolioController {
     public ResponseEntity<PortfolioDto> updatePortfolio(
             @PathVariable Long id,
             @Valid @RequestBody PortfolioDto portfolioDto,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        Long userId = Long.parseLong(userDetails.getUsername());
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
         return ResponseEntity.ok(portfolioService.updatePortfolio(id, portfolioDto, userId));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePortfolio(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        Long userId = Long.parseLong(userDetails.getUsername());
+            @AuthenticationPrincipal UserPrincipal principal) {
+        Long userId = principal.getId();
         portfolioService.deletePortfolio(id, userId);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,33 @@
+package com.enterprise.portfolio.controller;
+
+import com.enterprise.portfolio.dto.PriceTickDto;
+import com.enterprise.portfolio.service.PriceIngestionService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/prices")
+@RequiredArgsConstructor
+@Validated
+public class PriceController {
+
+    private final PriceIngestionService priceIngestionService;
+
+    /**
+     * Queue a batch of ticks. Prices are written on the next flush window, hence 202.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> ingestPrices(@RequestBody @NotEmpty List<@Valid PriceTickDto> ticks) {
+        int accepted = priceIngestionService.acceptAll(ticks);
+        return ResponseEntity.accepted().body(Map.of("accepted", accepted));
+    }
+}
@@ -1,5 +1,6 @@
 package com.enterprise.portfolio.controller;
 
+import com.enterprise.portfolio.dto.CursorPageDto;
 import com.enterprise.portfolio.dto.UserDto;
 import com.enterprise.portfolio.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -61,11 +62,12 @@ public class UserController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search users")
-    public ResponseEntity<Page<UserDto>> searchUsers(
+    @Operation(summary = "Search users by username/email prefix or name/email substring (keyset paginated)")
+    public ResponseEntity<CursorPageDto<UserDto>> searchUsers(
             @RequestParam String query,
-            Pageable pageable) {
-        return ResponseEntity.ok(userService.searchUsers(query, pageable));
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.searchUsers(query, after, size));
     }
 
     @PostMapping("/{userId}/roles/{roleId}")
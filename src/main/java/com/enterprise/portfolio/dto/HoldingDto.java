@@ -0,0 +1,27 @@
+package com.enterprise.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldingDto {
+    private Long id;
+    private Long portfolioId;
+    private Long assetId;
+    private String symbol;
+    private BigDecimal quantity;
+    private BigDecimal averagePurchasePrice;
+    private BigDecimal totalInvestment;
+    private BigDecimal currentValue;
+    private BigDecimal profitLoss;
+    private Double profitLossPercentage;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package com.enterprise.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Performance of a portfolio over a date range. Percentages are null where undefined, e.g. a money-weighted
+ * return without both contributions and value.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAnalyticsDto {
+    private Long portfolioId;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal openingValue;
+    private BigDecimal closingValue;
+    private BigDecimal netFlows;
+    private Double timeWeightedReturnPercentage;
+    private Double annualizedTimeWeightedReturnPercentage;
+    private Double moneyWeightedReturnPercentage;
+    private Double maxDrawdownPercentage;
+    private Double volatilityPercentage;
+}
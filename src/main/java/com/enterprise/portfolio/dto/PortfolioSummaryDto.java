@@ -0,0 +1,34 @@
+package com.enterprise.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioSummaryDto {
+    private Long portfolioId;
+    private String name;
+    private BigDecimal totalValue;
+    private BigDecimal totalInvestment;
+    private BigDecimal profitLoss;
+    private Double profitLossPercentage;
+    private int holdingCount;
+    private List<Allocation> topAllocations;
+    private LocalDateTime lastTransactionAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Allocation {
+        private String symbol;
+        private BigDecimal percentage;
+    }
+}
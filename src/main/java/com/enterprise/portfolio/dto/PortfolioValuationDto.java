@@ -0,0 +1,21 @@
+package com.enterprise.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValuationDto {
+    private Long portfolioId;
+    private BigDecimal totalValue;
+    private BigDecimal totalInvestment;
+    private BigDecimal profitLoss;
+    private Double profitLossPercentage;
+    private long holdingCount;
+}
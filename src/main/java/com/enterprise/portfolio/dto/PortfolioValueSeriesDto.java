@@ -0,0 +1,36 @@
+package com.enterprise.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily value of a portfolio's holdings over a date range. {@code portfolioId} is null for the combined
+ * series of several portfolios.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValueSeriesDto {
+    private Long portfolioId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Point> points;
+    private Double timeWeightedReturnPercentage;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private LocalDate date;
+        private BigDecimal value;
+        /** Money moved into (positive) or out of (negative) positions that day by buys and sells. */
+        private BigDecimal netFlow;
+    }
+}
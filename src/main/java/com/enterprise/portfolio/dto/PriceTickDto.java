@@ -0,0 +1,30 @@
+package com.enterprise.portfolio.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A single price observation for an asset. A missing timestamp means "now".
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceTickDto {
+    @NotBlank
+    private String symbol;
+
+    @NotNull
+    @Positive
+    private BigDecimal price;
+
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,27 @@
+package com.enterprise.portfolio.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One model applied to many portfolios.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RebalanceBatchRequestDto {
+    @NotNull
+    @Valid
+    private RebalanceModelDto model;
+
+    @NotEmpty
+    private List<Long> portfolioIds;
+}
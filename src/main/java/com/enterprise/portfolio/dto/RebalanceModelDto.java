@@ -0,0 +1,59 @@
+package com.enterprise.portfolio.dto;
+
+import com.enterprise.portfolio.model.Asset;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Target allocation for rebalancing. Weights are fractions of portfolio value and must add up to 1.
+ * <p>
+ * {@code assetWeights} pin single assets by symbol. {@code typeWeights} spread a share over the assets of that
+ * type the portfolio already holds (without an asset weight), in proportion to their current value. Held
+ * assets covered by neither are sold.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RebalanceModelDto {
+    @Builder.Default
+    private Map<String, BigDecimal> assetWeights = new HashMap<>();
+
+    @Builder.Default
+    private Map<Asset.AssetType, BigDecimal> typeWeights = new HashMap<>();
+
+    /** Positions within this fraction of portfolio value of their target are left alone. */
+    @Builder.Default
+    @NotNull
+    @DecimalMin("0")
+    private BigDecimal driftBand = new BigDecimal("0.005");
+
+    /** Proportional fee per order, e.g. 0.001 for 10 bp. */
+    @Builder.Default
+    @NotNull
+    @DecimalMin("0")
+    private BigDecimal feeRate = BigDecimal.ZERO;
+
+    @Builder.Default
+    @NotNull
+    @DecimalMin("0")
+    private BigDecimal fixedFee = BigDecimal.ZERO;
+
+    /** Orders worth less than this are dropped. */
+    @Builder.Default
+    @NotNull
+    @DecimalMin("0")
+    private BigDecimal minOrderValue = BigDecimal.ZERO;
+
+    /** Lot size per symbol; defaults to whole units for stocks and ETFs, 1e-8 otherwise. */
+    @Builder.Default
+    private Map<String, BigDecimal> lotSizes = new HashMap<>();
+}
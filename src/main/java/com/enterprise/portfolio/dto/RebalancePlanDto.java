@@ -0,0 +1,43 @@
+package com.enterprise.portfolio.dto;
+
+import com.enterprise.portfolio.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RebalancePlanDto {
+    private Long portfolioId;
+    private BigDecimal totalValue;
+    private BigDecimal estimatedFees;
+    @Builder.Default
+    private List<Order> orders = new ArrayList<>();
+    /** Held assets without a known price; they are left out of the plan. */
+    @Builder.Default
+    private List<String> unpricedSymbols = new ArrayList<>();
+    /** Asset types with a target weight but no holdings to spread it over; that share stays unallocated. */
+    @Builder.Default
+    private List<String> unplacedTypes = new ArrayList<>();
+    private boolean executed;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Order {
+        private Long assetId;
+        private String symbol;
+        private Transaction.TransactionType side;
+        private BigDecimal quantity;
+        private BigDecimal price;
+        private BigDecimal value;
+        private BigDecimal fee;
+    }
+}
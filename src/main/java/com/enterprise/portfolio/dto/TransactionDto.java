@@ -0,0 +1,28 @@
+package com.enterprise.portfolio.dto;
+
+import com.enterprise.portfolio.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionDto {
+    private Long id;
+    private Long portfolioId;
+    private Long assetId;
+    private String symbol;
+    private Transaction.TransactionType type;
+    private BigDecimal quantity;
+    private BigDecimal pricePerUnit;
+    private BigDecimal totalAmount;
+    private BigDecimal transactionFee;
+    private LocalDateTime transactionDate;
+    private String notes;
+}
@@ -0,0 +1,25 @@
+package com.enterprise.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionImportResultDto {
+    private Long portfolioId;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private int chunksCommitted;
+    private long durationMs;
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,31 @@
+package com.enterprise.portfolio.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Raw, unvalidated row of a broker import file (one CSV line or one NDJSON object).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TransactionImportRow {
+    @JsonAlias("transactionDate")
+    private String date;
+    private String type;
+    private String symbol;
+    private String quantity;
+    @JsonAlias("pricePerUnit")
+    private String price;
+    @JsonAlias("totalAmount")
+    private String amount;
+    @JsonAlias("transactionFee")
+    private String fee;
+    private String notes;
+}
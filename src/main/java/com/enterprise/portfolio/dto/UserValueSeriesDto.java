@@ -0,0 +1,17 @@
+package com.enterprise.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserValueSeriesDto {
+    private PortfolioValueSeriesDto total;
+    private List<PortfolioValueSeriesDto> portfolios;
+}
@@ -0,0 +1,16 @@
+package com.enterprise.portfolio.event;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever the latest price of an asset changes.
+ */
+@Value
+public class AssetPriceChangedEvent {
+    Long assetId;
+    BigDecimal price;
+    LocalDateTime pricedAt;
+}
@@ -0,0 +1,11 @@
+package com.enterprise.portfolio.event;
+
+import lombok.Value;
+
+/**
+ * Published after the holdings of a portfolio were rewritten from its ledger.
+ */
+@Value
+public class PortfolioHoldingsChangedEvent {
+    Long portfolioId;
+}
@@ -0,0 +1,15 @@
+package com.enterprise.portfolio.event;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Published after holdings of a portfolio were revalued, carrying the change in portfolio totals.
+ */
+@Value
+public class PortfolioRevaluedEvent {
+    Long portfolioId;
+    BigDecimal valueDelta;
+    BigDecimal profitLossDelta;
+}
@@ -32,6 +32,12 @@ public class RequestResponseLoggingFilter extends OncePerRequestFilter {
         "/swagger-ui"
     };
 
+    // Large streaming bodies must not be copied into ContentCaching wrappers
+    private static final String[] STREAMING_URL_SUFFIXES = {
+        "/transactions/import",
+        "/transactions/export"
+    };
+
     private final MetricsService metricsService;
 
     public RequestResponseLoggingFilter(MetricsService metricsService) {
@@ -59,6 +65,17 @@ public class RequestResponseLoggingFilter extends OncePerRequestFilter {
             requestId = UUID.randomUUID().toString();
         }
 
+        if (isStreaming(request)) {
+            response.addHeader(REQUEST_ID_HEADER, requestId);
+            long startTime = System.currentTimeMillis();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                recordMetrics(request, response, System.currentTimeMillis() - startTime);
+            }
+            return;
+        }
+
         // Wrap request and response to allow multiple reads
         ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request);
         ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
@@ -94,6 +111,16 @@ public class RequestResponseLoggingFilter extends OncePerRequestFilter {
         }
     }
     
+    private boolean isStreaming(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (String suffix : STREAMING_URL_SUFFIXES) {
+            if (path.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     private void logRequest(ContentCachingRequestWrapper request, String requestId) throws IOException {
         StringBuilder headers = new StringBuilder();
         Enumeration<String> headerNames = request.getHeaderNames();
@@ -0,0 +1,11 @@
+package com.enterprise.portfolio.mapper;
+
+/**
+ * Compile-time generated conversion between an entity and its DTO.
+ */
+public interface EntityMapper<D, E> {
+
+    D toDto(E entity);
+
+    E toEntity(D dto);
+}
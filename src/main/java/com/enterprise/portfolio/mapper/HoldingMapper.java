@@ -0,0 +1,25 @@
+package com.enterprise.portfolio.mapper;
+
+import com.enterprise.portfolio.dto.HoldingDto;
+import com.enterprise.portfolio.model.Holding;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface HoldingMapper extends EntityMapper<HoldingDto, Holding> {
+
+    @Override
+    @Mapping(target = "portfolioId", source = "portfolio.id")
+    @Mapping(target = "assetId", source = "asset.id")
+    @Mapping(target = "symbol", source = "asset.symbol")
+    HoldingDto toDto(Holding holding);
+
+    @Override
+    @Mapping(target = "portfolio", ignore = true)
+    @Mapping(target = "asset", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Holding toEntity(HoldingDto dto);
+}
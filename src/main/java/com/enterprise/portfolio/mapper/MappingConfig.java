@@ -0,0 +1,17 @@
+package com.enterprise.portfolio.mapper;
+
+import org.mapstruct.Builder;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared MapStruct settings. Lombok builders are bypassed because they do not cover the
+ * {@code BaseEntity}/{@code BaseDto} fields (id, audit columns, version). Unmapped target properties fail
+ * the build, so a new entity or DTO field has to be mapped or explicitly ignored.
+ */
+@MapperConfig(
+        builder = @Builder(disableBuilder = true),
+        unmappedTargetPolicy = ReportingPolicy.ERROR
+)
+public interface MappingConfig {
+}
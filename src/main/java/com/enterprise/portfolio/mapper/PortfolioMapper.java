@@ -0,0 +1,23 @@
+package com.enterprise.portfolio.mapper;
+
+import com.enterprise.portfolio.dto.PortfolioDto;
+import com.enterprise.portfolio.model.Portfolio;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface PortfolioMapper extends EntityMapper<PortfolioDto, Portfolio> {
+
+    @Override
+    @Mapping(target = "userId", source = "user.id")
+    PortfolioDto toDto(Portfolio portfolio);
+
+    @Override
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "holdings", ignore = true)
+    @Mapping(target = "transactions", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Portfolio toEntity(PortfolioDto dto);
+}
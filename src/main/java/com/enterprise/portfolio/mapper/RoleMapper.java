@@ -0,0 +1,18 @@
+package com.enterprise.portfolio.mapper;
+
+import com.enterprise.portfolio.dto.RoleDto;
+import com.enterprise.portfolio.model.Role;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface RoleMapper extends EntityMapper<RoleDto, Role> {
+
+    @Override
+    @Mapping(target = "permissions", ignore = true)
+    RoleDto toDto(Role role);
+
+    @Override
+    @Mapping(target = "users", ignore = true)
+    Role toEntity(RoleDto dto);
+}
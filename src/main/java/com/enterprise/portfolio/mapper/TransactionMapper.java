@@ -0,0 +1,26 @@
+package com.enterprise.portfolio.mapper;
+
+import com.enterprise.portfolio.dto.TransactionDto;
+import com.enterprise.portfolio.model.Transaction;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MappingConfig.class)
+public interface TransactionMapper extends EntityMapper<TransactionDto, Transaction> {
+
+    @Override
+    @Mapping(target = "portfolioId", source = "portfolio.id")
+    @Mapping(target = "assetId", source = "asset.id")
+    @Mapping(target = "symbol", source = "asset.symbol")
+    TransactionDto toDto(Transaction transaction);
+
+    @Override
+    @Mapping(target = "portfolio", ignore = true)
+    @Mapping(target = "asset", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Transaction toEntity(TransactionDto dto);
+}
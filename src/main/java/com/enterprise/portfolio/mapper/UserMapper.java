@@ -0,0 +1,31 @@
+package com.enterprise.portfolio.mapper;
+
+import com.enterprise.portfolio.dto.UserDto;
+import com.enterprise.portfolio.model.Role;
+import com.enterprise.portfolio.model.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Mapper(config = MappingConfig.class)
+public interface UserMapper extends EntityMapper<UserDto, User> {
+
+    @Override
+    UserDto toDto(User user);
+
+    @Override
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "roles", ignore = true)
+    @Mapping(target = "tokenVersion", ignore = true)
+    @Mapping(target = "authorities", ignore = true)
+    User toEntity(UserDto dto);
+
+    default Set<String> roleNames(Set<Role> roles) {
+        if (roles == null) {
+            return null;
+        }
+        return roles.stream().map(Role::getName).collect(Collectors.toSet());
+    }
+}
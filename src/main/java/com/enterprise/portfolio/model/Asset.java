@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.util.Objects;
@@ -30,7 +32,8 @@ public class Asset extends BaseEntity {
     private String name;
     
     @Enumerated(EnumType.STRING)
-    @Column(name = "asset_type", nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "asset_type", nullable = false, length = 20)
     private AssetType type;
     
     @Column(length = 10)
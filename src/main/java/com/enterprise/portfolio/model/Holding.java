@@ -37,7 +37,7 @@ public class Holding extends BaseEntity {
     @Column(name = "profit_loss", precision = 19, scale = 2)
     private BigDecimal profitLoss;
     
-    @Column(name = "profit_loss_percentage", precision = 10, scale = 2)
+    @Column(name = "profit_loss_percentage")
     private Double profitLossPercentage;
     
     // Helper methods for bidirectional relationship
@@ -0,0 +1,36 @@
+package com.enterprise.portfolio.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of a portfolio's folded positions after a given ledger entry, so replays only need the tail.
+ * Positions are stored compactly as {@code assetId,quantity,totalInvestment} tuples separated by {@code ;}.
+ */
+@Entity
+@Table(name = "ledger_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerCheckpoint extends BaseEntity {
+    
+    @Column(name = "portfolio_id", nullable = false)
+    private Long portfolioId;
+    
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+    
+    @Column(name = "last_transaction_date", nullable = false)
+    private LocalDateTime lastTransactionDate;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+    
+    @Lob
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String positions;
+}
@@ -0,0 +1,52 @@
+package com.enterprise.portfolio.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized dashboard row of a portfolio. Not the source of truth: it is derived from holdings and
+ * transactions and can always be rebuilt from them.
+ * Top allocations are stored compactly as {@code symbol:percentage} pairs separated by {@code ;}.
+ */
+@Entity
+@Table(name = "portfolio_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioSummary extends BaseEntity {
+    
+    @Column(name = "portfolio_id", nullable = false, unique = true)
+    private Long portfolioId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "portfolio_name", nullable = false)
+    private String portfolioName;
+    
+    @Builder.Default
+    @Column(name = "total_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalValue = BigDecimal.ZERO;
+    
+    @Builder.Default
+    @Column(name = "total_investment", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalInvestment = BigDecimal.ZERO;
+    
+    @Builder.Default
+    @Column(name = "profit_loss", nullable = false, precision = 19, scale = 2)
+    private BigDecimal profitLoss = BigDecimal.ZERO;
+    
+    @Column(name = "holding_count", nullable = false)
+    private int holdingCount;
+    
+    @Column(name = "top_allocations", length = 1024)
+    private String topAllocations;
+    
+    @Column(name = "last_transaction_at")
+    private LocalDateTime lastTransactionAt;
+}
@@ -20,9 +20,10 @@ public class RefreshToken extends BaseEntity {
     @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
     private User user;
 
+    /** Hex SHA-256 of the token handed to the client; the token itself is never stored. */
     @NotBlank
-    @Column(nullable = false, unique = true, length = 255)
-    private String token;
+    @Column(name = "token_hash", nullable = false, unique = true, columnDefinition = "CHAR(64)")
+    private String tokenHash;
 
     @NotNull
     @Column(name = "expiry_date", nullable = false)
@@ -0,0 +1,52 @@
+package com.enterprise.portfolio.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batched JDBC write path for asset prices: one batch per flush window instead of one entity update per tick.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AssetPriceWriter {
+
+    // Never move a price backwards when ticks for the same asset arrive out of order across windows
+    private static final String UPDATE_SQL = "UPDATE assets SET current_price = ?, price_updated_at = ? " +
+            "WHERE id = ? AND (price_updated_at IS NULL OR price_updated_at <= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return per-row update counts, aligned with {@code prices}; 0 means the stored price was newer
+     */
+    public int[] updatePrices(List<Price> prices) {
+        return jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Price price = prices.get(i);
+                Timestamp pricedAt = Timestamp.valueOf(price.pricedAt());
+                ps.setBigDecimal(1, price.price());
+                ps.setTimestamp(2, pricedAt);
+                ps.setLong(3, price.assetId());
+                ps.setTimestamp(4, pricedAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return prices.size();
+            }
+        });
+    }
+
+    public record Price(long assetId, BigDecimal price, LocalDateTime pricedAt) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.enterprise.portfolio.repository;
+
+import com.enterprise.portfolio.model.Asset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AssetRepository extends JpaRepository<Asset, Long> {
+    
+    Optional<Asset> findBySymbol(String symbol);
+    
+    boolean existsBySymbol(String symbol);
+    
+    /**
+     * Price table load: [id, symbol, currentPrice, priceUpdatedAt] of every asset.
+     */
+    @Query("SELECT a.id, a.symbol, a.currentPrice, a.priceUpdatedAt FROM Asset a")
+    List<Object[]> findAllPrices();
+    
+    /**
+     * Asset universe for planning: [id, symbol, type].
+     */
+    @Query("SELECT a.id, a.symbol, a.type FROM Asset a")
+    List<Object[]> findAllSymbolsAndTypes();
+}
@@ -0,0 +1,53 @@
+package com.enterprise.portfolio.repository;
+
+import com.enterprise.portfolio.model.Holding;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HoldingRepository extends JpaRepository<Holding, Long> {
+    
+    /**
+     * Reverse lookup used by the valuation engine: every holding that references the given asset.
+     */
+    @Query("SELECT h FROM Holding h WHERE h.asset.id = :assetId")
+    List<Holding> findByAssetId(@Param("assetId") Long assetId);
+    
+    @Query("SELECT h FROM Holding h WHERE h.portfolio.id = :portfolioId")
+    List<Holding> findByPortfolioId(@Param("portfolioId") Long portfolioId);
+    
+    /**
+     * Aggregated totals for a single portfolio: [currentValue, totalInvestment, profitLoss, holdingCount].
+     */
+    @Query("SELECT COALESCE(SUM(h.currentValue), 0), COALESCE(SUM(h.totalInvestment), 0), " +
+           "COALESCE(SUM(h.profitLoss), 0), COUNT(h) FROM Holding h WHERE h.portfolio.id = :portfolioId")
+    List<Object[]> sumByPortfolioId(@Param("portfolioId") Long portfolioId);
+    
+    /**
+     * {@link #sumByPortfolioId} for a portfolio of the given user, with ownership checked in the same statement:
+     * no row when the user does not own the portfolio.
+     */
+    @Query("SELECT COALESCE(SUM(h.currentValue), 0), COALESCE(SUM(h.totalInvestment), 0), " +
+           "COALESCE(SUM(h.profitLoss), 0), COUNT(h) FROM Portfolio p LEFT JOIN Holding h ON h.portfolio = p " +
+           "WHERE p.id = :portfolioId AND p.user.id = :userId GROUP BY p.id")
+    List<Object[]> sumByPortfolioIdAndUserId(@Param("portfolioId") Long portfolioId, @Param("userId") Long userId);
+    
+    /**
+     * Largest positions of a portfolio by current value: [symbol, currentValue].
+     */
+    @Query("SELECT a.symbol, h.currentValue FROM Holding h JOIN h.asset a " +
+           "WHERE h.portfolio.id = :portfolioId AND h.currentValue IS NOT NULL ORDER BY h.currentValue DESC")
+    List<Object[]> findTopValuesByPortfolioId(@Param("portfolioId") Long portfolioId, Pageable pageable);
+    
+    /**
+     * Compact holdings of many portfolios at once: [portfolioId, assetId, quantity], without entity hydration.
+     */
+    @Query("SELECT h.portfolio.id, h.asset.id, h.quantity FROM Holding h WHERE h.portfolio.id IN :portfolioIds")
+    List<Object[]> findQuantitiesByPortfolioIds(@Param("portfolioIds") Collection<Long> portfolioIds);
+}
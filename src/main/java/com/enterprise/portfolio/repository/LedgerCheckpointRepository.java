@@ -0,0 +1,33 @@
+package com.enterprise.portfolio.repository;
+
+import com.enterprise.portfolio.model.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, Long> {
+    
+    Optional<LedgerCheckpoint> findFirstByPortfolioIdOrderByLastTransactionDateDescLastTransactionIdDesc(Long portfolioId);
+    
+    @Query("SELECT c.id FROM LedgerCheckpoint c WHERE c.portfolioId = :portfolioId " +
+           "ORDER BY c.lastTransactionDate DESC, c.lastTransactionId DESC")
+    List<Long> findIdsNewestFirst(@Param("portfolioId") Long portfolioId);
+    
+    /**
+     * Drop checkpoints that a back-dated transaction would make stale.
+     */
+    @Modifying
+    @Query("DELETE FROM LedgerCheckpoint c WHERE c.portfolioId = :portfolioId AND c.lastTransactionDate >= :from")
+    int deleteFrom(@Param("portfolioId") Long portfolioId, @Param("from") LocalDateTime from);
+    
+    @Modifying
+    @Query("DELETE FROM LedgerCheckpoint c WHERE c.portfolioId = :portfolioId")
+    int deleteByPortfolioId(@Param("portfolioId") Long portfolioId);
+}
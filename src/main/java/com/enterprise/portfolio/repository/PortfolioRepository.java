@@ -1,23 +1,44 @@
 package com.enterprise.portfolio.repository;
 
+import com.enterprise.portfolio.dto.PortfolioDto;
 import com.enterprise.portfolio.model.Portfolio;
-import com.enterprise.portfolio.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Ownership is expressed as {@code user.id} predicates, which resolve to the {@code user_id} column without
+ * loading or joining the user.
+ */
 @Repository
 public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
     
-    List<Portfolio> findByUser(User user);
+    Optional<Portfolio> findByIdAndUserId(Long id, Long userId);
     
-    Optional<Portfolio> findByIdAndUser(Long id, User user);
+    boolean existsByIdAndUserId(Long id, Long userId);
     
-    boolean existsByNameAndUser(String name, User user);
+    boolean existsByNameAndUserId(String name, Long userId);
     
-    Optional<Portfolio> findByNameAndUser(String name, User user);
+    long countByUserId(Long userId);
     
-    long countByUser(User user);
+    @Query("SELECT new com.enterprise.portfolio.dto.PortfolioDto(p.id, p.name, p.description, p.user.id, p.createdAt, p.updatedAt) " +
+           "FROM Portfolio p WHERE p.user.id = :userId ORDER BY p.id")
+    List<PortfolioDto> findDtosByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT new com.enterprise.portfolio.dto.PortfolioDto(p.id, p.name, p.description, p.user.id, p.createdAt, p.updatedAt) " +
+           "FROM Portfolio p WHERE p.id = :id AND p.user.id = :userId")
+    Optional<PortfolioDto> findDtoByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+    
+    @Query("SELECT p.id FROM Portfolio p WHERE p.user.id = :userId ORDER BY p.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Ownership check that also yields the owner's username, for writes that record who made them.
+     */
+    @Query("SELECT u.username FROM Portfolio p JOIN p.user u WHERE p.id = :id AND u.id = :userId")
+    Optional<String> findOwnerUsername(@Param("id") Long id, @Param("userId") Long userId);
 }
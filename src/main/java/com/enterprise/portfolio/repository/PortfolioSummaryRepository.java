@@ -0,0 +1,49 @@
+package com.enterprise.portfolio.repository;
+
+import com.enterprise.portfolio.model.PortfolioSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PortfolioSummaryRepository extends JpaRepository<PortfolioSummary, Long> {
+    
+    /**
+     * Dashboard query, served by the (user_id, portfolio_name) index.
+     */
+    List<PortfolioSummary> findByUserIdOrderByPortfolioName(Long userId);
+    
+    Optional<PortfolioSummary> findByPortfolioId(Long portfolioId);
+    
+    /**
+     * Read a summary for a full recompute, holding its row lock until commit so that revaluation deltas
+     * queue behind the recompute instead of being overwritten by it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PortfolioSummary s WHERE s.portfolioId = :portfolioId")
+    Optional<PortfolioSummary> findByPortfolioIdForUpdate(@Param("portfolioId") Long portfolioId);
+    
+    /**
+     * Apply a revaluation delta in place, without reading the row first. The version is bumped so that a copy
+     * of the row loaded before the delta fails its optimistic check instead of writing stale totals back.
+     */
+    @Modifying
+    @Query("UPDATE PortfolioSummary s SET s.totalValue = s.totalValue + :valueDelta, " +
+           "s.profitLoss = s.profitLoss + :profitLossDelta, s.version = s.version + 1 " +
+           "WHERE s.portfolioId = :portfolioId")
+    int applyDelta(@Param("portfolioId") Long portfolioId,
+                   @Param("valueDelta") BigDecimal valueDelta,
+                   @Param("profitLossDelta") BigDecimal profitLossDelta);
+    
+    @Modifying
+    @Query("UPDATE PortfolioSummary s SET s.portfolioName = :name WHERE s.portfolioId = :portfolioId")
+    int rename(@Param("portfolioId") Long portfolioId, @Param("name") String name);
+}
@@ -0,0 +1,209 @@
+package com.enterprise.portfolio.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * JDBC access to {@code price_ticks} and {@code price_bars}. Neither table has an entity: rows are written in
+ * batches once per ingestion window and only ever read as series.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceHistoryRepository {
+
+    private static final String INSERT_TICK_SQL =
+            "INSERT IGNORE INTO price_ticks (asset_id, priced_at, price) VALUES (?, ?, ?)";
+
+    // MySQL applies ON DUPLICATE KEY assignments left to right, so open/close are decided before
+    // open_at/close_at are moved
+    private static final String UPSERT_BAR_SQL = "INSERT INTO price_bars " +
+            "(asset_id, resolution, bucket_start, open, high, low, close, open_at, close_at, tick_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "open = IF(VALUES(open_at) < open_at, VALUES(open), open), " +
+            "open_at = LEAST(open_at, VALUES(open_at)), " +
+            "high = GREATEST(high, VALUES(high)), " +
+            "low = LEAST(low, VALUES(low)), " +
+            "close = IF(VALUES(close_at) >= close_at, VALUES(close), close), " +
+            "close_at = GREATEST(close_at, VALUES(close_at)), " +
+            "tick_count = tick_count + VALUES(tick_count)";
+
+    private static final RowMapper<Bar> BAR_MAPPER = (rs, rowNum) -> new Bar(
+            rs.getTimestamp("bucket_start").toLocalDateTime(),
+            rs.getBigDecimal("open"),
+            rs.getBigDecimal("high"),
+            rs.getBigDecimal("low"),
+            rs.getBigDecimal("close"),
+            rs.getInt("tick_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void appendTicks(List<Tick> ticks) {
+        jdbcTemplate.batchUpdate(INSERT_TICK_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Tick tick = ticks.get(i);
+                ps.setLong(1, tick.assetId());
+                ps.setTimestamp(2, Timestamp.valueOf(tick.pricedAt()));
+                ps.setBigDecimal(3, tick.price());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ticks.size();
+            }
+        });
+    }
+
+    public void upsertBars(List<BarUpdate> bars) {
+        jdbcTemplate.batchUpdate(UPSERT_BAR_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BarUpdate bar = bars.get(i);
+                ps.setLong(1, bar.assetId());
+                ps.setString(2, bar.resolution());
+                ps.setTimestamp(3, Timestamp.valueOf(bar.bucketStart()));
+                ps.setBigDecimal(4, bar.open());
+                ps.setBigDecimal(5, bar.high());
+                ps.setBigDecimal(6, bar.low());
+                ps.setBigDecimal(7, bar.close());
+                ps.setTimestamp(8, Timestamp.valueOf(bar.openAt()));
+                ps.setTimestamp(9, Timestamp.valueOf(bar.closeAt()));
+                ps.setInt(10, bar.ticks());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return bars.size();
+            }
+        });
+    }
+
+    /**
+     * Raw ticks in {@code [from, to)} as single-price bars.
+     */
+    public List<Bar> findTicks(long assetId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT priced_at, price FROM price_ticks WHERE asset_id = ? AND priced_at >= ? AND priced_at < ? " +
+                "ORDER BY priced_at",
+                (rs, rowNum) -> {
+                    BigDecimal price = rs.getBigDecimal("price");
+                    return new Bar(rs.getTimestamp("priced_at").toLocalDateTime(), price, price, price, price, 1);
+                },
+                assetId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public List<Bar> findBars(long assetId, String resolution, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT bucket_start, open, high, low, close, tick_count FROM price_bars " +
+                "WHERE asset_id = ? AND resolution = ? AND bucket_start >= ? AND bucket_start < ? " +
+                "ORDER BY bucket_start",
+                BAR_MAPPER, assetId, resolution, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Daily closing prices of the given assets with {@code bucket_start} in {@code [from, to)}.
+     */
+    public Map<Long, NavigableMap<LocalDate, BigDecimal>> findDailyCloses(Collection<Long> assetIds,
+                                                                        LocalDateTime from, LocalDateTime to) {
+        Map<Long, NavigableMap<LocalDate, BigDecimal>> closes = new HashMap<>();
+        if (assetIds.isEmpty()) {
+            return closes;
+        }
+        String placeholders = String.join(",", Collections.nCopies(assetIds.size(), "?"));
+        List<Object> args = new ArrayList<>(assetIds);
+        args.add(Timestamp.valueOf(from));
+        args.add(Timestamp.valueOf(to));
+        jdbcTemplate.query(
+                "SELECT asset_id, bucket_start, close FROM price_bars " +
+                "WHERE asset_id IN (" + placeholders + ") AND resolution = '1d' AND bucket_start >= ? AND bucket_start < ?",
+                rs -> {
+                    closes.computeIfAbsent(rs.getLong("asset_id"), id -> new TreeMap<>())
+                            .put(rs.getTimestamp("bucket_start").toLocalDateTime().toLocalDate(), rs.getBigDecimal("close"));
+                },
+                args.toArray());
+        return closes;
+    }
+
+    /**
+     * {@link #findDailyCloses} for a portfolio of the given user, with ownership checked in the same statement.
+     * The bars are outer-joined to the owned portfolio row, so no row at all means the user does not own the
+     * portfolio.
+     *
+     * @return empty when the user does not own the portfolio
+     */
+    public Optional<Map<Long, NavigableMap<LocalDate, BigDecimal>>> findDailyClosesIfOwned(
+            long portfolioId, long userId, Collection<Long> assetIds, LocalDateTime from, LocalDateTime to) {
+        Map<Long, NavigableMap<LocalDate, BigDecimal>> closes = new HashMap<>();
+        List<Object> args = new ArrayList<>(assetIds);
+        String barsOfAssets = "FALSE";
+        if (!assetIds.isEmpty()) {
+            barsOfAssets = "b.asset_id IN (" + String.join(",", Collections.nCopies(assetIds.size(), "?")) + ") " +
+                    "AND b.resolution = '1d' AND b.bucket_start >= ? AND b.bucket_start < ?";
+            args.add(Timestamp.valueOf(from));
+            args.add(Timestamp.valueOf(to));
+        }
+        args.add(portfolioId);
+        args.add(userId);
+        boolean[] owned = new boolean[1];
+        jdbcTemplate.query(
+                "SELECT b.asset_id, b.bucket_start, b.close FROM portfolios p " +
+                "LEFT JOIN price_bars b ON " + barsOfAssets + " " +
+                "WHERE p.id = ? AND p.user_id = ?",
+                rs -> {
+                    owned[0] = true;
+                    long assetId = rs.getLong("asset_id");
+                    if (!rs.wasNull()) {
+                        closes.computeIfAbsent(assetId, id -> new TreeMap<>())
+                                .put(rs.getTimestamp("bucket_start").toLocalDateTime().toLocalDate(), rs.getBigDecimal("close"));
+                    }
+                },
+                args.toArray());
+        return owned[0] ? Optional.of(closes) : Optional.empty();
+    }
+
+    /**
+     * Delete up to {@code limit} raw ticks older than {@code cutoff}; callers loop until 0 is returned so
+     * no single statement holds locks on a large range.
+     */
+    public int deleteTicksBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM price_ticks WHERE priced_at < ? LIMIT ?",
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    public int deleteBarsBefore(String resolution, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM price_bars WHERE resolution = ? AND bucket_start < ? LIMIT ?",
+                resolution, Timestamp.valueOf(cutoff), limit);
+    }
+
+    public record Tick(long assetId, LocalDateTime pricedAt, BigDecimal price) {
+    }
+
+    public record BarUpdate(long assetId, String resolution, LocalDateTime bucketStart,
+                            BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close,
+                            LocalDateTime openAt, LocalDateTime closeAt, int ticks) {
+    }
+
+    public record Bar(LocalDateTime time, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close,
+                      int ticks) {
+    }
+}
@@ -1,19 +1,53 @@
 package com.enterprise.portfolio.repository;
 
 import com.enterprise.portfolio.model.RefreshToken;
-import com.enterprise.portfolio.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
     
+    /**
+     * Issue a token on login, replacing the user's previous one in the same statement.
+     */
     @Modifying
-    int deleteByUser(User user);
+    @Query(value = "INSERT INTO refresh_tokens (user_id, token_hash, expiry_date, version) " +
+                   "VALUES (:userId, :tokenHash, :expiryDate, 0) " +
+                   "ON DUPLICATE KEY UPDATE token_hash = VALUES(token_hash), expiry_date = VALUES(expiry_date), " +
+                   "version = version + 1", nativeQuery = true)
+    int upsertForUser(@Param("userId") Long userId,
+                      @Param("tokenHash") String tokenHash,
+                      @Param("expiryDate") Instant expiryDate);
     
-    boolean existsByToken(String token);
+    /**
+     * Swap a live token for a new one. Affects no row if the token is unknown, expired or was already rotated,
+     * so of several concurrent rotations exactly one succeeds.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.tokenHash = :newHash, t.expiryDate = :expiryDate, t.version = t.version + 1 " +
+           "WHERE t.tokenHash = :oldHash AND t.expiryDate > :now")
+    int rotate(@Param("oldHash") String oldHash,
+               @Param("newHash") String newHash,
+               @Param("expiryDate") Instant expiryDate,
+               @Param("now") Instant now);
+    
+    @Query("SELECT t.user.id FROM RefreshToken t WHERE t.tokenHash = :tokenHash")
+    Optional<Long> findUserIdByTokenHash(@Param("tokenHash") String tokenHash);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+    
+    /**
+     * One chunk of the expiry sweep; small chunks keep row locks and undo short.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE expiry_date < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
@@ -0,0 +1,79 @@
+package com.enterprise.portfolio.repository;
+
+import com.enterprise.portfolio.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batched JDBC insert path for {@link Transaction} rows.
+ * <p>
+ * {@code BaseEntity} ids use {@code GenerationType.IDENTITY}, which makes Hibernate insert one row per round
+ * trip. Bulk imports bypass the persistence context and send a single multi-row batch per chunk instead
+ * (collapsed into one statement when the JDBC URL sets {@code rewriteBatchedStatements=true}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO transactions " +
+            "(portfolio_id, asset_id, type, quantity, price_per_unit, total_amount, transaction_fee, " +
+            "transaction_date, notes, created_at, updated_at, created_by, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertBatch(Long portfolioId, List<Row> rows, String createdBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Row row = rows.get(i);
+                ps.setLong(1, portfolioId);
+                if (row.assetId() != null) {
+                    ps.setLong(2, row.assetId());
+                } else {
+                    ps.setNull(2, Types.BIGINT);
+                }
+                ps.setString(3, row.type().name());
+                ps.setBigDecimal(4, row.quantity());
+                ps.setBigDecimal(5, row.pricePerUnit());
+                ps.setBigDecimal(6, row.totalAmount());
+                ps.setBigDecimal(7, row.transactionFee());
+                ps.setTimestamp(8, Timestamp.valueOf(row.transactionDate()));
+                ps.setString(9, row.notes());
+                ps.setTimestamp(10, now);
+                ps.setTimestamp(11, now);
+                ps.setString(12, createdBy);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        return counts.length;
+    }
+
+    /**
+     * Validated transaction ready to be written.
+     */
+    public record Row(Long assetId,
+                      Transaction.TransactionType type,
+                      BigDecimal quantity,
+                      BigDecimal pricePerUnit,
+                      BigDecimal totalAmount,
+                      BigDecimal transactionFee,
+                      LocalDateTime transactionDate,
+                      String notes) {
+    }
+}
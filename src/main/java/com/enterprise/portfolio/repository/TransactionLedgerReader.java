@@ -0,0 +1,67 @@
+package com.enterprise.portfolio.repository;
+
+import com.enterprise.portfolio.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only JDBC read path over a portfolio's whole ledger.
+ * <p>
+ * A fetch size of {@link Integer#MIN_VALUE} makes MySQL Connector/J stream rows one at a time instead of
+ * buffering the full result set, and nothing is attached to a persistence context, so memory stays constant
+ * regardless of ledger size. The connection is held until the consumer has seen the last row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionLedgerReader {
+
+    private static final String LEDGER_SQL = "SELECT t.id, t.transaction_date, t.type, a.symbol, t.quantity, " +
+            "t.price_per_unit, t.total_amount, t.transaction_fee, t.notes " +
+            "FROM transactions t LEFT JOIN assets a ON a.id = t.asset_id " +
+            "WHERE t.portfolio_id = ? " +
+            "ORDER BY t.transaction_date, t.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEach(Long portfolioId, Consumer<Row> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LEDGER_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setLong(1, portfolioId);
+            return ps;
+        }, rs -> {
+            consumer.accept(new Row(
+                    rs.getLong("id"),
+                    rs.getTimestamp("transaction_date").toLocalDateTime(),
+                    Transaction.TransactionType.valueOf(rs.getString("type")),
+                    rs.getString("symbol"),
+                    rs.getBigDecimal("quantity"),
+                    rs.getBigDecimal("price_per_unit"),
+                    rs.getBigDecimal("total_amount"),
+                    rs.getBigDecimal("transaction_fee"),
+                    rs.getString("notes")));
+        });
+    }
+
+    /**
+     * One ledger row as read from the cursor.
+     */
+    public record Row(long id,
+                      LocalDateTime transactionDate,
+                      Transaction.TransactionType type,
+                      String symbol,
+                      BigDecimal quantity,
+                      BigDecimal pricePerUnit,
+                      BigDecimal totalAmount,
+                      BigDecimal transactionFee,
+                      String notes) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.enterprise.portfolio.repository;
+
+import com.enterprise.portfolio.dto.TransactionDto;
+import com.enterprise.portfolio.model.Transaction;
+import com.enterprise.portfolio.repository.projection.LedgerEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+    
+    String LEDGER_SELECT = "SELECT new com.enterprise.portfolio.repository.projection.LedgerEntry(" +
+            "t.id, a.id, t.type, t.quantity, t.pricePerUnit, t.totalAmount, t.transactionFee, t.transactionDate) " +
+            "FROM Transaction t LEFT JOIN t.asset a WHERE t.portfolio.id = :portfolioId ";
+    
+    String LEDGER_ORDER = "ORDER BY t.transactionDate, t.id";
+    
+    // Integer.MIN_VALUE makes Connector/J stream rows instead of buffering the whole result set
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LEDGER_SELECT + LEDGER_ORDER)
+    Stream<LedgerEntry> streamLedger(@Param("portfolioId") Long portfolioId);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LEDGER_SELECT +
+            "AND (t.transactionDate > :afterDate OR (t.transactionDate = :afterDate AND t.id > :afterId)) " +
+            LEDGER_ORDER)
+    Stream<LedgerEntry> streamLedgerAfter(@Param("portfolioId") Long portfolioId,
+                                         @Param("afterDate") LocalDateTime afterDate,
+                                         @Param("afterId") Long afterId);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(LEDGER_SELECT + "AND t.transactionDate >= :from AND t.transactionDate < :until " + LEDGER_ORDER)
+    Stream<LedgerEntry> streamLedgerBetween(@Param("portfolioId") Long portfolioId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("until") LocalDateTime until);
+    
+    /**
+     * One page of transaction history, newest first, positioned by the keyset {@code (cursorDate, cursorId)}.
+     * Rows are projected straight into DTOs so neither transactions nor portfolios are hydrated. Only rows of
+     * a portfolio owned by {@code userId} are returned, so a non-empty page needs no separate ownership check.
+     */
+    @Query("SELECT new com.enterprise.portfolio.dto.TransactionDto(" +
+            "t.id, t.portfolio.id, a.id, a.symbol, t.type, t.quantity, t.pricePerUnit, t.totalAmount, " +
+            "t.transactionFee, t.transactionDate, t.notes) " +
+            "FROM Transaction t LEFT JOIN t.asset a " +
+            "WHERE t.portfolio.id = :portfolioId AND t.portfolio.user.id = :userId " +
+            "AND (t.transactionDate < :cursorDate OR (t.transactionDate = :cursorDate AND t.id < :cursorId)) " +
+            "AND t.transactionDate >= :from AND t.transactionDate < :to " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "AND (:assetId IS NULL OR a.id = :assetId) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionDto> findHistoryPage(@Param("portfolioId") Long portfolioId,
+                                         @Param("userId") Long userId,
+                                         @Param("cursorDate") LocalDateTime cursorDate,
+                                         @Param("cursorId") Long cursorId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("type") Transaction.TransactionType type,
+                                         @Param("assetId") Long assetId,
+                                         Pageable pageable);
+    
+    @Query("SELECT MAX(t.transactionDate) FROM Transaction t WHERE t.portfolio.id = :portfolioId")
+    LocalDateTime findLastTransactionDate(@Param("portfolioId") Long portfolioId);
+    
+    /**
+     * [portfolioId, first transaction date] of a portfolio of the given user, with ownership checked in the same
+     * statement: no row when the user does not own the portfolio, a null date when it has no transactions.
+     */
+    @Query("SELECT p.id, MIN(t.transactionDate) FROM Portfolio p LEFT JOIN Transaction t ON t.portfolio = p " +
+           "WHERE p.id = :portfolioId AND p.user.id = :userId GROUP BY p.id")
+    List<Object[]> findFirstTransactionDateIfOwned(@Param("portfolioId") Long portfolioId,
+                                                   @Param("userId") Long userId);
+    
+    @Query("SELECT DISTINCT t.asset.id FROM Transaction t WHERE t.portfolio.id = :portfolioId AND t.asset IS NOT NULL")
+    List<Long> findAssetIds(@Param("portfolioId") Long portfolioId);
+}
@@ -4,10 +4,14 @@ import com.enterprise.portfolio.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -24,16 +28,75 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Boolean existsByEmail(String email);
     
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findRevokedTokenVersions();
+    
+    /**
+     * Tombstone of a deleted user, whose access tokens must stay rejected after the users row is gone.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revoked_users (user_id, revoked_at) VALUES (:userId, :revokedAt) " +
+           "ON DUPLICATE KEY UPDATE revoked_at = VALUES(revoked_at)", nativeQuery = true)
+    int insertRevokedUser(@Param("userId") Long userId, @Param("revokedAt") Instant revokedAt);
+    
+    @Query(value = "SELECT user_id FROM revoked_users WHERE revoked_at >= :since", nativeQuery = true)
+    List<Long> findRevokedUserIdsSince(@Param("since") Instant since);
+    
+    @Modifying
+    @Query(value = "DELETE FROM revoked_users WHERE revoked_at < :cutoff", nativeQuery = true)
+    int deleteRevokedUsersBefore(@Param("cutoff") Instant cutoff);
+    
     @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.username = :username")
     Optional<User> findByUsernameWithRoles(@Param("username") String username);
     
     @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.email = :email")
     Optional<User> findByEmailWithRoles(@Param("email") String email);
     
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE " +
-           "LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%'))")
-    Page<User> searchUsers(@Param("query") String query, Pageable pageable);
+    /**
+     * First phase of paged listing: ids only, so the database paginates instead of Hibernate. Callers sort by
+     * id (at least as the last key), or LIMIT/OFFSET pages may overlap or skip rows.
+     */
+    @Query(value = "SELECT u.id FROM User u", countQuery = "SELECT COUNT(u) FROM User u")
+    Page<Long> findPageOfIds(Pageable pageable);
+    
+    /**
+     * Prefix search on username/email, served by idx_users_username and idx_users_email, keyset-paginated by id.
+     */
+    @Query(value = "SELECT id FROM (" +
+           "(SELECT id FROM users WHERE username LIKE :prefix AND id > :afterId ORDER BY id LIMIT :limit) " +
+           "UNION " +
+           "(SELECT id FROM users WHERE email LIKE :prefix AND id > :afterId ORDER BY id LIMIT :limit)" +
+           ") matches ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> searchIdsByPrefix(@Param("prefix") String prefix,
+                                 @Param("afterId") long afterId,
+                                 @Param("limit") int limit);
+    
+    /**
+     * Prefix search plus substring search through the ngram FULLTEXT index ft_users_search.
+     */
+    @Query(value = "SELECT id FROM (" +
+           "(SELECT id FROM users WHERE username LIKE :prefix AND id > :afterId ORDER BY id LIMIT :limit) " +
+           "UNION " +
+           "(SELECT id FROM users WHERE email LIKE :prefix AND id > :afterId ORDER BY id LIMIT :limit) " +
+           "UNION " +
+           "(SELECT id FROM users WHERE MATCH(username, email, first_name, last_name) " +
+           "AGAINST (:phrase IN BOOLEAN MODE) AND id > :afterId ORDER BY id LIMIT :limit)" +
+           ") matches ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> searchIdsByPrefixOrFullText(@Param("prefix") String prefix,
+                                           @Param("phrase") String phrase,
+                                           @Param("afterId") long afterId,
+                                           @Param("limit") int limit);
+    
+    /**
+     * Second phase of paged listing: the page's users with their roles in one query.
+     */
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Replace a password hash in place, e.g. after re-encoding it with a new BCrypt cost on login.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
 }
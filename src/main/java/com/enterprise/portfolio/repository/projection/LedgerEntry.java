@@ -0,0 +1,23 @@
+package com.enterprise.portfolio.repository.projection;
+
+import com.enterprise.portfolio.model.Transaction;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of the transaction ledger, selected with a constructor expression so that replay never
+ * hydrates {@link Transaction} entities into the persistence context.
+ */
+@Value
+public class LedgerEntry {
+    Long id;
+    Long assetId;
+    Transaction.TransactionType type;
+    BigDecimal quantity;
+    BigDecimal pricePerUnit;
+    BigDecimal totalAmount;
+    BigDecimal transactionFee;
+    LocalDateTime transactionDate;
+}
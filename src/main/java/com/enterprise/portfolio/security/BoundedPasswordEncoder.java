@@ -0,0 +1,119 @@
+package com.enterprise.portfolio.security;
+
+import com.enterprise.portfolio.exception.TooManyRequestsException;
+import com.enterprise.portfolio.service.MetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that runs every hash on a small dedicated pool instead of the calling request thread.
+ * <p>
+ * The pool has a fixed number of threads and a bounded queue, so a login burst can occupy at most that many
+ * cores; once the queue is full further hashes are rejected immediately with a
+ * {@link TooManyRequestsException} (HTTP 429) rather than piling up behind each other. Queue wait and hash
+ * time are recorded separately ({@code auth.password.hash.wait}, {@code auth.password.hash.time}).
+ * <p>
+ * {@link #upgradeEncoding(String)} reports hashes whose cost differs from the configured strength, so that
+ * Spring Security re-encodes them on the next successful login.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final MetricsService metricsService;
+    private final long retryAfterSeconds;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long retryAfterSeconds,
+                                  MetricsService metricsService) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.metricsService = metricsService;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        log.info("Password hashing pool: {} threads, queue of {}, BCrypt strength {}", threads, queueCapacity, strength);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> T run(String operation, Callable<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                metricsService.recordTime("auth.password.hash.wait", started - submitted, TimeUnit.NANOSECONDS,
+                        "operation", operation);
+                try {
+                    return hash.call();
+                } finally {
+                    metricsService.recordTime("auth.password.hash.time", System.nanoTime() - started,
+                            TimeUnit.NANOSECONDS, "operation", operation);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metricsService.incrementCounter("auth.password.hash.rejected", "operation", operation);
+            throw new TooManyRequestsException("Too many concurrent sign-in requests, please retry shortly",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -4,14 +4,17 @@ import com.enterprise.portfolio.exception.ResourceNotFoundException;
 import com.enterprise.portfolio.model.User;
 import com.enterprise.portfolio.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -40,4 +43,20 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return UserPrincipal.create(user);
     }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash no longer matches the
+     * configured encoding.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+        log.info("Re-encoded password hash of user {}", user.getUsername());
+        if (user instanceof UserPrincipal principal) {
+            return new UserPrincipal(principal.getId(), principal.getUsername(), principal.getEmail(), newPassword,
+                    principal.isEnabled(), principal.getAuthorities());
+        }
+        return user;
+    }
 }
@@ -1,8 +1,6 @@
 package com.enterprise.portfolio.security;
 
-import com.enterprise.portfolio.config.JwtConfig;
-import com.enterprise.portfolio.service.AuthService;
-import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +8,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -18,17 +17,23 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
+@Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Autowired
-    private AuthService authService;
+    private JwtTokenVerifier tokenVerifier;
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
     @Autowired
-    private JwtConfig jwtConfig;
+    private UserPrincipalCache userPrincipalCache;
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -36,10 +41,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && authService.validateJwtToken(jwt)) {
-                String username = getUsernameFromJWT(jwt);
-                
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+            Optional<Claims> claims = StringUtils.hasText(jwt) ? tokenVerifier.verify(jwt) : Optional.empty();
+            if (claims.isPresent()) {
+                UserDetails userDetails = resolvePrincipal(claims.get());
                 if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
@@ -62,12 +66,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private String getUsernameFromJWT(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(jwtConfig.getSecret())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Tokens carrying user id, roles and token version are authorized from the claims alone; older tokens
+     * without these claims fall back to the cached database lookup.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        String username = claims.getSubject();
+        Number userId = claims.get(JwtClaimNames.USER_ID, Number.class);
+        Number tokenVersion = claims.get(JwtClaimNames.TOKEN_VERSION, Number.class);
+        Collection<?> roles = claims.get(JwtClaimNames.ROLES, Collection.class);
+
+        if (userId == null || tokenVersion == null || roles == null) {
+            return userPrincipalCache.get(username, () -> customUserDetailsService.loadUserByUsername(username));
+        }
+        if (!tokenVersionRegistry.isCurrent(userId.longValue(), tokenVersion.intValue())) {
+            logger.debug("Rejected revoked token of user {} (version {})", userId, tokenVersion);
+            return null;
+        }
+        List<String> roleNames = roles.stream().map(String::valueOf).toList();
+        return UserPrincipal.create(userId.longValue(), username, roleNames);
     }
 }
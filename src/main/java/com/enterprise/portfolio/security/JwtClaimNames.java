@@ -0,0 +1,14 @@
+package com.enterprise.portfolio.security;
+
+/**
+ * Custom claims carried by access tokens so requests can be authorized without a database lookup.
+ */
+public final class JwtClaimNames {
+
+    public static final String USER_ID = "uid";
+    public static final String ROLES = "roles";
+    public static final String TOKEN_VERSION = "ver";
+
+    private JwtClaimNames() {
+    }
+}
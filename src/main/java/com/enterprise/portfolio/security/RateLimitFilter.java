@@ -0,0 +1,146 @@
+package com.enterprise.portfolio.security;
+
+import com.enterprise.portfolio.config.RateLimitProperties;
+import com.enterprise.portfolio.service.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests over their route's token bucket limit with {@code 429} and a {@code Retry-After} header.
+ * <p>
+ * Registered twice in the security chain: the {@link Scope#CLIENT_IP} instance ahead of
+ * {@link JwtAuthenticationFilter}, so abusive clients are turned away before any token verification or
+ * password hashing, and the {@link Scope#USER} instance right after it, once the caller is known. Client
+ * addresses are {@link HttpServletRequest#getRemoteAddr()}; behind a proxy, enable
+ * {@code server.forward-headers-strategy} so it reflects the real client.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public enum Scope {
+        CLIENT_IP, USER
+    }
+
+    private final Scope scope;
+    private final boolean enabled;
+    private final String[] prefixes;
+    private final TokenBucketLimiter[] limiters;
+    private final MetricsService metricsService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RateLimitFilter(Scope scope, RateLimitProperties properties, MetricsService metricsService) {
+        this.scope = scope;
+        this.enabled = properties.isEnabled();
+        this.metricsService = metricsService;
+
+        // Longest prefix first, so the first match is the most specific route
+        List<RateLimitProperties.Route> routes = properties.getRoutes().stream()
+                .filter(route -> limitOf(route) != null)
+                .sorted(Comparator.comparingInt((RateLimitProperties.Route route) -> route.getPrefix().length()).reversed())
+                .toList();
+        this.prefixes = new String[routes.size()];
+        this.limiters = new TokenBucketLimiter[routes.size()];
+        for (int i = 0; i < routes.size(); i++) {
+            RateLimitProperties.Limit limit = limitOf(routes.get(i));
+            prefixes[i] = routes.get(i).getPrefix();
+            limiters[i] = new TokenBucketLimiter(limit.getCapacity(), limit.getRefillPerSecond(), properties.getStripes());
+        }
+        log.info("Rate limiting by {} on {} routes", scope.name().toLowerCase(Locale.ROOT), routes.size());
+    }
+
+    /**
+     * One marker per scope: both instances share a class and have no filter name, so the default marker
+     * would make the user instance skip every request the client instance already let through.
+     */
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return RateLimitFilter.class.getName() + "." + scope.name() + ALREADY_FILTERED_SUFFIX;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || prefixes.length == 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        int route = match(path);
+        Object key = route >= 0 ? keyOf(request) : null;
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = limiters[route].tryAcquire(key);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        reject(request, response, route, waitNanos);
+    }
+
+    private int match(String path) {
+        for (int i = 0; i < prefixes.length; i++) {
+            if (path.startsWith(prefixes[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Object keyOf(HttpServletRequest request) {
+        if (scope == Scope.CLIENT_IP) {
+            return request.getRemoteAddr();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        // Anonymous requests are covered by the client address limit
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, int route, long waitNanos)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        metricsService.incrementCounter("http.requests.rate_limited",
+                "route", prefixes[route], "scope", scope.name().toLowerCase(Locale.ROOT));
+        log.debug("Rate limited {} {} on route {}", scope.name().toLowerCase(Locale.ROOT), request.getRemoteAddr(),
+                prefixes[route]);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Rate limit exceeded, retry after " + retryAfterSeconds + "s");
+        body.put("path", request.getServletPath());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private RateLimitProperties.Limit limitOf(RateLimitProperties.Route route) {
+        return scope == Scope.CLIENT_IP ? route.getPerIp() : route.getPerUser();
+    }
+}
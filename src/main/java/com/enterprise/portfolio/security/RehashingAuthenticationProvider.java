@@ -0,0 +1,39 @@
+package com.enterprise.portfolio.security;
+
+import com.enterprise.portfolio.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+
+/**
+ * Re-encodes hashes with an outdated BCrypt cost on successful login, like
+ * {@link DaoAuthenticationProvider#setUserDetailsPasswordService}, except that the upgrade is best effort:
+ * when the hashing pool rejects the extra hash the login, whose password already matched, still succeeds
+ * and the upgrade is retried on a later login.
+ */
+@Slf4j
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final UserDetailsPasswordService passwordService;
+
+    public RehashingAuthenticationProvider(UserDetailsPasswordService passwordService) {
+        this.passwordService = passwordService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        UserDetails current = user;
+        if (getPasswordEncoder().upgradeEncoding(user.getPassword())) {
+            try {
+                String newPassword = getPasswordEncoder().encode(authentication.getCredentials().toString());
+                current = passwordService.updatePassword(user, newPassword);
+            } catch (TooManyRequestsException e) {
+                log.debug("Hashing pool saturated, skipped re-encoding the password of user {}", user.getUsername());
+            }
+        }
+        return super.createSuccessAuthentication(principal, authentication, current);
+    }
+}
@@ -0,0 +1,104 @@
+package com.enterprise.portfolio.security;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets for an unbounded set of keys (client addresses, user ids) sharing one limit.
+ * <p>
+ * Buckets live in plain hash maps split over lock stripes chosen by key hash, so concurrent requests for
+ * different keys rarely meet on the same lock and a check costs one uncontended monitor plus a map lookup.
+ * Buckets are refilled lazily on access. A bucket left idle long enough to refill completely is
+ * indistinguishable from a new one, so each stripe periodically drops such buckets while it is being used;
+ * there is no background sweeper and memory is bounded by the keys active within one refill period.
+ */
+public final class TokenBucketLimiter {
+
+    // Sweep a stripe for idle buckets once per this many operations on it
+    private static final int SWEEP_MASK = 1023;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleNanos;
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public TokenBucketLimiter(long capacity, double refillPerSecond, int stripes) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit needs a capacity of at least 1 and a positive refill rate");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.idleNanos = (long) Math.ceil(capacity / tokensPerNano);
+        int count = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * Take one token from the key's bucket.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(Object key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(Object key, long now) {
+        int h = key.hashCode();
+        Stripe stripe = stripes[(h ^ (h >>> 16)) & mask];
+        synchronized (stripe) {
+            if ((++stripe.operations & SWEEP_MASK) == 0) {
+                stripe.sweep(now, idleNanos);
+            }
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                stripe.buckets.put(key, new Bucket(capacity - 1, now));
+                return 0;
+            }
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+            bucket.updatedAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / tokensPerNano));
+        }
+    }
+
+    /**
+     * Number of tracked keys, including idle ones not swept yet.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private static final class Stripe {
+        private final Map<Object, Bucket> buckets = new HashMap<>();
+        private int operations;
+
+        void sweep(long now, long idleNanos) {
+            buckets.values().removeIf(bucket -> now - bucket.updatedAt >= idleNanos);
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.enterprise.portfolio.security;
+
+import com.enterprise.portfolio.config.JwtConfig;
+import com.enterprise.portfolio.model.User;
+import com.enterprise.portfolio.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the minimum token version accepted per user.
+ * <p>
+ * Access tokens carry the user's {@code token_version} at issue time. Bumping the version (role change,
+ * password change, disable, delete) revokes every older token without any per-request database lookup:
+ * only users whose version was ever bumped are held here.
+ * <p>
+ * A bump takes effect on this node when its transaction commits, and on other nodes at their next reload
+ * every {@code app.security.token-version-refresh-ms}. Deleted users have no row left to carry a version,
+ * so they are recorded as tombstones in {@code revoked_users}, kept for the access token lifetime.
+ */
+@Slf4j
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final JwtConfig jwtConfig;
+    private final ConcurrentHashMap<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry(UserRepository userRepository, JwtConfig jwtConfig) {
+        this.userRepository = userRepository;
+        this.jwtConfig = jwtConfig;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+        log.info("Loaded token versions for {} users", minimumVersions.size());
+    }
+
+    /**
+     * Pick up bumps and deletions committed on other nodes. Versions only ever grow, so merging is safe
+     * against concurrent local bumps.
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-version-refresh-ms:30000}",
+            initialDelayString = "${app.security.token-version-refresh-ms:30000}")
+    public void reload() {
+        for (Object[] row : userRepository.findRevokedTokenVersions()) {
+            minimumVersions.merge((Long) row[0], ((Number) row[1]).intValue(), Math::max);
+        }
+        List<Long> deleted = userRepository.findRevokedUserIdsSince(oldestLiveTokenIssuedAt());
+        for (Long userId : deleted) {
+            minimumVersions.put(userId, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Tombstones older than the access token lifetime no longer guard any valid token.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}",
+            initialDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}")
+    public void purgeExpiredTombstones() {
+        int deleted = userRepository.deleteRevokedUsersBefore(oldestLiveTokenIssuedAt());
+        if (deleted > 0) {
+            log.info("Purged {} revoked user tombstones", deleted);
+        }
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return tokenVersion >= minimumVersions.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Increment the user's token version. The entity change is persisted with the caller's transaction and
+     * the in-memory registry is updated once that transaction commits.
+     */
+    public void bump(User user) {
+        int newVersion = user.getTokenVersion() + 1;
+        user.setTokenVersion(newVersion);
+        afterCommit(() -> minimumVersions.merge(user.getId(), newVersion, Math::max));
+    }
+
+    /**
+     * Reject every token of a user that is being deleted. The tombstone is written with the caller's
+     * transaction, so it commits or rolls back with the deletion.
+     */
+    public void revokeAll(Long userId) {
+        userRepository.insertRevokedUser(userId, Instant.now());
+        afterCommit(() -> minimumVersions.put(userId, Integer.MAX_VALUE));
+    }
+
+    private Instant oldestLiveTokenIssuedAt() {
+        return Instant.now().minusMillis(jwtConfig.getExpirationMs());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -60,6 +60,17 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    /**
+     * Build a principal from verified token claims; email and password are not available on this path.
+     */
+    public static UserPrincipal create(Long id, String username, Collection<String> roles) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        return new UserPrincipal(id, username, null, null, true, authorities);
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return accountNonExpired;
@@ -0,0 +1,60 @@
+package com.enterprise.portfolio.security;
+
+import com.enterprise.portfolio.config.CacheConfig;
+import com.enterprise.portfolio.model.User;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated principals keyed by JWT subject, so the authentication filter
+ * does not query the users table on every request.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final Cache cache;
+
+    public UserPrincipalCache(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.USER_PRINCIPALS),
+                "Cache " + CacheConfig.USER_PRINCIPALS + " is not configured");
+    }
+
+    public UserDetails get(String subject, Supplier<UserDetails> loader) {
+        return cache.get(subject, loader::get);
+    }
+
+    /**
+     * Drop every cached entry of the user. When called inside a transaction the eviction is deferred until
+     * after commit, so a concurrent request cannot re-cache the pre-change state.
+     */
+    public void evict(User user) {
+        String username = user.getUsername();
+        String email = user.getEmail();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictKeys(username, email);
+                }
+            });
+        } else {
+            evictKeys(username, email);
+        }
+    }
+
+    private void evictKeys(String username, String email) {
+        if (username != null) {
+            cache.evict(username);
+        }
+        if (email != null) {
+            cache.evict(email);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.model.Transaction.TransactionType;
+import com.enterprise.portfolio.repository.projection.LedgerEntry;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Single-pass performance engine over one portfolio's ledger, in {@code (transactionDate, id)} order, and
+ * daily closing prices. All state lives in primitive {@code double} arrays indexed by day and asset slot.
+ * <p>
+ * The account is modelled as holdings plus cash. Deposits and withdrawals are external flows; sale proceeds
+ * and dividends stay in cash, fees are paid from it. A purchase or fee that cash cannot cover is treated as
+ * an implicit deposit of the shortfall, so ledgers that never record deposits are still measured correctly.
+ * <p>
+ * Day index 0 is the day before {@code from}: its closing value is the opening value of the range.
+ */
+final class AnalyticsEngine {
+
+    static final int DAYS_PER_YEAR = 365;
+
+    private final long baseEpochDay;
+    private final int days;
+    private final Map<Long, Integer> slots;
+    private final double[][] closes;
+    private final double[] lastTradePrice;
+    private final double[] quantities;
+    private final double[] values;
+    private final double[] flows;
+    private double cash;
+    private int valuedThrough = -1;
+
+    AnalyticsEngine(LocalDate from, LocalDate to, Collection<Long> assetIds,
+                    Map<Long, NavigableMap<LocalDate, BigDecimal>> dailyCloses) {
+        this.baseEpochDay = from.toEpochDay() - 1;
+        this.days = (int) (to.toEpochDay() - baseEpochDay);
+        this.slots = new HashMap<>(assetIds.size() * 2);
+        this.closes = new double[assetIds.size()][];
+        this.lastTradePrice = new double[assetIds.size()];
+        this.quantities = new double[assetIds.size()];
+        this.values = new double[days + 1];
+        this.flows = new double[days + 1];
+
+        int slot = 0;
+        for (Long assetId : assetIds) {
+            slots.put(assetId, slot);
+            closes[slot] = forwardFill(dailyCloses.get(assetId));
+            lastTradePrice[slot] = Double.NaN;
+            slot++;
+        }
+    }
+
+    /**
+     * Apply the next ledger entry. Entries before the range only build up the opening state.
+     */
+    void accept(LedgerEntry entry) {
+        int day = (int) (entry.getTransactionDate().toLocalDate().toEpochDay() - baseEpochDay);
+        if (day > days) {
+            return;
+        }
+        // Close out every day before this entry's day at the state it ended with
+        valueThrough(day - 1);
+
+        double amount = entry.getTotalAmount() != null ? entry.getTotalAmount().doubleValue() : Double.NaN;
+        double fee = entry.getTransactionFee() != null ? entry.getTransactionFee().doubleValue() : 0;
+        double quantity = entry.getQuantity() != null ? entry.getQuantity().doubleValue() : 0;
+        double price = entry.getPricePerUnit() != null ? entry.getPricePerUnit().doubleValue() : Double.NaN;
+        Integer slot = entry.getAssetId() != null ? slots.get(entry.getAssetId()) : null;
+
+        TransactionType type = entry.getType();
+        if (type == TransactionType.REBALANCE) {
+            type = quantity >= 0 ? TransactionType.BUY : TransactionType.SELL;
+            quantity = Math.abs(quantity);
+            amount = Double.isNaN(amount) ? amount : Math.abs(amount);
+        }
+        if (Double.isNaN(amount)) {
+            amount = Double.isNaN(price) ? 0 : quantity * price;
+        }
+
+        switch (type) {
+            case BUY -> {
+                if (slot != null) {
+                    quantities[slot] += quantity;
+                    rememberPrice(slot, price, amount, quantity);
+                }
+                pay(day, amount + fee);
+            }
+            case SELL -> {
+                if (slot != null) {
+                    quantities[slot] = Math.max(0, quantities[slot] - quantity);
+                    rememberPrice(slot, price, amount, quantity);
+                }
+                cash += amount - fee;
+            }
+            case DIVIDEND -> cash += amount - fee;
+            case FEE -> pay(day, amount);
+            case DEPOSIT -> {
+                cash += amount;
+                flow(day, amount);
+            }
+            case WITHDRAWAL -> {
+                cash -= amount;
+                flow(day, -amount);
+            }
+            default -> {
+                // REBALANCE was mapped to BUY or SELL above
+            }
+        }
+    }
+
+    Result finish() {
+        valueThrough(days);
+
+        double growth = 1;
+        double peak = 1;
+        double maxDrawdown = 0;
+        double sum = 0;
+        double sumOfSquares = 0;
+        int returns = 0;
+        double netFlows = 0;
+        for (int day = 1; day <= days; day++) {
+            netFlows += flows[day];
+            double previous = values[day - 1];
+            if (previous > 0) {
+                double r = (values[day] - flows[day]) / previous - 1;
+                growth *= 1 + r;
+                sum += r;
+                sumOfSquares += r * r;
+                returns++;
+            }
+            peak = Math.max(peak, growth);
+            maxDrawdown = Math.min(maxDrawdown, growth / peak - 1);
+        }
+
+        double volatility = returns > 1
+                ? Math.sqrt(Math.max(0, (sumOfSquares - sum * sum / returns) / (returns - 1))) * Math.sqrt(DAYS_PER_YEAR)
+                : Double.NaN;
+        double annualized = returns > 0 ? Math.pow(growth, (double) DAYS_PER_YEAR / days) - 1 : Double.NaN;
+
+        return new Result(values[0], values[days], netFlows, returns > 0 ? growth - 1 : Double.NaN, annualized,
+                xirr(), maxDrawdown, volatility);
+    }
+
+    /**
+     * Money-weighted return: the annual rate at which the opening value, every external flow and the closing
+     * value discount to zero. Newton's method, falling back to bisection when it does not converge.
+     */
+    double xirr() {
+        int count = 0;
+        double[] amounts = new double[days + 2];
+        double[] years = new double[days + 2];
+        if (values[0] != 0) {
+            amounts[count] = -values[0];
+            years[count++] = 0;
+        }
+        for (int day = 1; day <= days; day++) {
+            if (flows[day] != 0) {
+                amounts[count] = -flows[day];
+                years[count++] = (double) day / DAYS_PER_YEAR;
+            }
+        }
+        amounts[count] = values[days];
+        years[count++] = (double) days / DAYS_PER_YEAR;
+
+        boolean hasOutflow = false;
+        boolean hasInflow = false;
+        for (int i = 0; i < count; i++) {
+            hasOutflow |= amounts[i] < 0;
+            hasInflow |= amounts[i] > 0;
+        }
+        if (!hasOutflow || !hasInflow) {
+            return Double.NaN;
+        }
+
+        double rate = 0.1;
+        for (int iteration = 0; iteration < 50; iteration++) {
+            double npv = 0;
+            double derivative = 0;
+            for (int i = 0; i < count; i++) {
+                double discount = Math.pow(1 + rate, -years[i]);
+                npv += amounts[i] * discount;
+                derivative -= years[i] * amounts[i] * discount / (1 + rate);
+            }
+            if (Math.abs(npv) < 1e-7) {
+                return rate;
+            }
+            double next = rate - npv / derivative;
+            if (!Double.isFinite(next) || next <= -1) {
+                break;
+            }
+            if (Math.abs(next - rate) < 1e-12) {
+                return next;
+            }
+            rate = next;
+        }
+        return bisect(amounts, years, count);
+    }
+
+    private static double bisect(double[] amounts, double[] years, int count) {
+        double low = -0.999999;
+        double high = 100;
+        double npvLow = npv(amounts, years, count, low);
+        if (npvLow * npv(amounts, years, count, high) > 0) {
+            return Double.NaN;
+        }
+        for (int iteration = 0; iteration < 200; iteration++) {
+            double mid = (low + high) / 2;
+            double npvMid = npv(amounts, years, count, mid);
+            if (Math.abs(npvMid) < 1e-7 || high - low < 1e-12) {
+                return mid;
+            }
+            if (npvLow * npvMid < 0) {
+                high = mid;
+            } else {
+                low = mid;
+                npvLow = npvMid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    private static double npv(double[] amounts, double[] years, int count, double rate) {
+        double npv = 0;
+        for (int i = 0; i < count; i++) {
+            npv += amounts[i] * Math.pow(1 + rate, -years[i]);
+        }
+        return npv;
+    }
+
+    private void pay(int day, double amount) {
+        cash -= amount;
+        if (cash < 0) {
+            // Implicit deposit of the shortfall
+            flow(day, -cash);
+            cash = 0;
+        }
+    }
+
+    private void flow(int day, double amount) {
+        if (day >= 1) {
+            flows[day] += amount;
+        }
+    }
+
+    private void rememberPrice(int slot, double price, double amount, double quantity) {
+        if (!Double.isNaN(price)) {
+            lastTradePrice[slot] = price;
+        } else if (quantity > 0) {
+            lastTradePrice[slot] = amount / quantity;
+        }
+    }
+
+    private void valueThrough(int day) {
+        int last = Math.min(day, days);
+        for (int d = Math.max(0, valuedThrough + 1); d <= last; d++) {
+            double value = cash;
+            for (int slot = 0; slot < quantities.length; slot++) {
+                double quantity = quantities[slot];
+                if (quantity == 0) {
+                    continue;
+                }
+                double close = closes[slot][d];
+                double price = Double.isNaN(close) ? lastTradePrice[slot] : close;
+                if (!Double.isNaN(price)) {
+                    value += quantity * price;
+                }
+            }
+            values[d] = value;
+        }
+        valuedThrough = Math.max(valuedThrough, last);
+    }
+
+    private double[] forwardFill(NavigableMap<LocalDate, BigDecimal> assetCloses) {
+        double[] filled = new double[days + 1];
+        double last = Double.NaN;
+        Iterator<Map.Entry<LocalDate, BigDecimal>> iterator =
+                assetCloses != null ? assetCloses.entrySet().iterator() : null;
+        Map.Entry<LocalDate, BigDecimal> next = iterator != null && iterator.hasNext() ? iterator.next() : null;
+        for (int day = 0; day <= days; day++) {
+            long epochDay = baseEpochDay + day;
+            while (next != null && next.getKey().toEpochDay() <= epochDay) {
+                last = next.getValue().doubleValue();
+                next = iterator.hasNext() ? iterator.next() : null;
+            }
+            filled[day] = last;
+        }
+        return filled;
+    }
+
+    /**
+     * Returns are fractions (0.05 = 5%); {@code NaN} where undefined.
+     */
+    record Result(double openingValue, double closingValue, double netFlows,
+                  double timeWeightedReturn, double annualizedTimeWeightedReturn, double moneyWeightedReturn,
+                  double maxDrawdown, double volatility) {
+    }
+}
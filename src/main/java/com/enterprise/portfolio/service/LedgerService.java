@@ -0,0 +1,299 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.event.PortfolioHoldingsChangedEvent;
+import com.enterprise.portfolio.model.Holding;
+import com.enterprise.portfolio.model.LedgerCheckpoint;
+import com.enterprise.portfolio.model.Transaction.TransactionType;
+import com.enterprise.portfolio.repository.AssetRepository;
+import com.enterprise.portfolio.repository.HoldingRepository;
+import com.enterprise.portfolio.repository.LedgerCheckpointRepository;
+import com.enterprise.portfolio.repository.PortfolioRepository;
+import com.enterprise.portfolio.repository.TransactionRepository;
+import com.enterprise.portfolio.repository.projection.LedgerEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Derives {@link Holding} quantity, average cost and total investment by folding a portfolio's
+ * transactions in {@code (transactionDate, id)} order.
+ * <p>
+ * Transactions are read through a forward-only cursor as {@link LedgerEntry} rows, and the folded positions
+ * are snapshotted to {@link LedgerCheckpoint}s every {@code app.ledger.checkpoint-interval} entries, so a
+ * rebuild only replays the tail after the latest checkpoint. Only the newest
+ * {@code app.ledger.checkpoints-retained} checkpoints of a portfolio are kept: older ones are only useful
+ * after a back-dated write invalidates everything newer, and each rebuild adds at least one.
+ * <p>
+ * Fold rules: BUY adds quantity and capitalises amount plus fee; SELL removes quantity at average cost;
+ * REBALANCE carries a signed quantity and behaves as a BUY (positive) or SELL (negative). Cash-only types
+ * (DIVIDEND, DEPOSIT, WITHDRAWAL, FEE) do not change positions.
+ */
+@Slf4j
+@Service
+public class LedgerService {
+
+    private final TransactionRepository transactionRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final HoldingRepository holdingRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final AssetRepository assetRepository;
+    private final ValuationService valuationService;
+    private final PriceTable priceTable;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int checkpointInterval;
+    private final int checkpointsRetained;
+
+    public LedgerService(TransactionRepository transactionRepository,
+                         LedgerCheckpointRepository checkpointRepository,
+                         HoldingRepository holdingRepository,
+                         PortfolioRepository portfolioRepository,
+                         AssetRepository assetRepository,
+                         ValuationService valuationService,
+                         PriceTable priceTable,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${app.ledger.checkpoint-interval:10000}") int checkpointInterval,
+                         @Value("${app.ledger.checkpoints-retained:3}") int checkpointsRetained) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("app.ledger.checkpoint-interval must be at least 1");
+        }
+        if (checkpointsRetained < 1) {
+            throw new IllegalArgumentException("app.ledger.checkpoints-retained must be at least 1");
+        }
+        this.transactionRepository = transactionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.holdingRepository = holdingRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.assetRepository = assetRepository;
+        this.valuationService = valuationService;
+        this.priceTable = priceTable;
+        this.eventPublisher = eventPublisher;
+        this.checkpointInterval = checkpointInterval;
+        this.checkpointsRetained = checkpointsRetained;
+    }
+
+    /**
+     * Replay the ledger tail since the latest checkpoint and write the resulting holdings.
+     *
+     * @return number of transactions replayed
+     */
+    @Transactional
+    public long rebuildHoldings(Long portfolioId) {
+        Optional<LedgerCheckpoint> checkpoint =
+                checkpointRepository.findFirstByPortfolioIdOrderByLastTransactionDateDescLastTransactionIdDesc(portfolioId);
+
+        Map<Long, Position> positions = checkpoint.map(c -> decode(c.getPositions())).orElseGet(HashMap::new);
+        long totalCount = checkpoint.map(LedgerCheckpoint::getTransactionCount).orElse(0L);
+
+        // Connector/J allows no other statement on the connection while a streaming result set is open,
+        // so snapshots are collected here and written once the cursor is closed.
+        List<LedgerCheckpoint> snapshots = new ArrayList<>();
+        long replayed = 0;
+        LedgerEntry last = null;
+        try (Stream<LedgerEntry> entries = checkpoint
+                .map(c -> transactionRepository.streamLedgerAfter(portfolioId, c.getLastTransactionDate(), c.getLastTransactionId()))
+                .orElseGet(() -> transactionRepository.streamLedger(portfolioId))) {
+
+            Iterator<LedgerEntry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                last = iterator.next();
+                apply(positions, last);
+                replayed++;
+                if (replayed % checkpointInterval == 0) {
+                    snapshots.add(snapshot(portfolioId, last, totalCount + replayed, positions));
+                }
+            }
+        }
+
+        if (last != null && replayed % checkpointInterval != 0) {
+            snapshots.add(snapshot(portfolioId, last, totalCount + replayed, positions));
+        }
+        if (!snapshots.isEmpty()) {
+            checkpointRepository.saveAll(snapshots);
+            pruneCheckpoints(portfolioId);
+        }
+
+        writeHoldings(portfolioId, positions);
+        eventPublisher.publishEvent(new PortfolioHoldingsChangedEvent(portfolioId));
+        log.info("Rebuilt holdings of portfolio {} replaying {} transactions ({} from checkpoint)",
+                portfolioId, replayed, checkpoint.isPresent() ? "resumed" : "no checkpoint");
+        return replayed;
+    }
+
+    /**
+     * Discard checkpoints made stale by transactions written at or after {@code from}.
+     */
+    @Transactional
+    public void invalidateFrom(Long portfolioId, LocalDateTime from) {
+        int removed = checkpointRepository.deleteFrom(portfolioId, from);
+        if (removed > 0) {
+            log.debug("Invalidated {} ledger checkpoints of portfolio {} from {}", removed, portfolioId, from);
+        }
+    }
+
+    private void pruneCheckpoints(Long portfolioId) {
+        List<Long> ids = checkpointRepository.findIdsNewestFirst(portfolioId);
+        if (ids.size() > checkpointsRetained) {
+            checkpointRepository.deleteAllByIdInBatch(ids.subList(checkpointsRetained, ids.size()));
+        }
+    }
+
+    static void apply(Map<Long, Position> positions, LedgerEntry entry) {
+        if (entry.getAssetId() == null || entry.getQuantity() == null) {
+            return;
+        }
+        TransactionType type = entry.getType();
+        BigDecimal quantity = entry.getQuantity();
+        if (type == TransactionType.REBALANCE) {
+            type = quantity.signum() >= 0 ? TransactionType.BUY : TransactionType.SELL;
+            quantity = quantity.abs();
+        }
+
+        switch (type) {
+            case BUY -> {
+                BigDecimal cost = entry.getTotalAmount() != null
+                        ? entry.getTotalAmount()
+                        : quantity.multiply(zeroIfNull(entry.getPricePerUnit()));
+                positions.computeIfAbsent(entry.getAssetId(), id -> new Position())
+                        .buy(quantity, cost.add(zeroIfNull(entry.getTransactionFee())));
+            }
+            case SELL -> {
+                Position position = positions.get(entry.getAssetId());
+                if (position != null) {
+                    position.sell(quantity);
+                }
+            }
+            default -> {
+                // Cash movements do not affect asset positions
+            }
+        }
+    }
+
+    private static LedgerCheckpoint snapshot(Long portfolioId, LedgerEntry last, long transactionCount,
+                                             Map<Long, Position> positions) {
+        return LedgerCheckpoint.builder()
+                .portfolioId(portfolioId)
+                .lastTransactionId(last.getId())
+                .lastTransactionDate(last.getTransactionDate())
+                .transactionCount(transactionCount)
+                .positions(encode(positions))
+                .build();
+    }
+
+    private void writeHoldings(Long portfolioId, Map<Long, Position> positions) {
+        Map<Long, Holding> existing = new HashMap<>();
+        for (Holding holding : holdingRepository.findByPortfolioId(portfolioId)) {
+            existing.put(holding.getAsset().getId(), holding);
+        }
+
+        List<Holding> toSave = new ArrayList<>();
+        List<Holding> toDelete = new ArrayList<>();
+        for (Map.Entry<Long, Position> entry : positions.entrySet()) {
+            Position position = entry.getValue();
+            Holding holding = existing.remove(entry.getKey());
+            if (position.quantity.signum() <= 0) {
+                if (holding != null) {
+                    toDelete.add(holding);
+                }
+                continue;
+            }
+            if (holding == null) {
+                holding = Holding.builder()
+                        .portfolio(portfolioRepository.getReferenceById(portfolioId))
+                        .asset(assetRepository.getReferenceById(entry.getKey()))
+                        .build();
+            }
+            holding.setQuantity(position.quantity);
+            holding.setTotalInvestment(position.totalInvestment.setScale(2, RoundingMode.HALF_UP));
+            holding.setAveragePurchasePrice(position.averageCost());
+
+            // Priced from the in-memory table rather than initializing the lazy asset proxy
+            BigDecimal price = priceTable.getPrice(entry.getKey());
+            if (price != null) {
+                valuationService.revalue(holding, price);
+            }
+            toSave.add(holding);
+        }
+        // Holdings that no longer have any ledger backing
+        toDelete.addAll(existing.values());
+
+        holdingRepository.saveAll(toSave);
+        holdingRepository.deleteAll(toDelete);
+    }
+
+    static String encode(Map<Long, Position> positions) {
+        StringBuilder sb = new StringBuilder(positions.size() * 48);
+        for (Map.Entry<Long, Position> entry : positions.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(entry.getKey()).append(',')
+                    .append(entry.getValue().quantity.toPlainString()).append(',')
+                    .append(entry.getValue().totalInvestment.toPlainString());
+        }
+        return sb.toString();
+    }
+
+    static Map<Long, Position> decode(String encoded) {
+        Map<Long, Position> positions = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return positions;
+        }
+        for (String tuple : encoded.split(";")) {
+            String[] parts = tuple.split(",");
+            Position position = new Position();
+            position.quantity = new BigDecimal(parts[1]);
+            position.totalInvestment = new BigDecimal(parts[2]);
+            positions.put(Long.valueOf(parts[0]), position);
+        }
+        return positions;
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Mutable running position of a single asset during the fold.
+     */
+    static final class Position {
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private BigDecimal totalInvestment = BigDecimal.ZERO;
+
+        void buy(BigDecimal qty, BigDecimal cost) {
+            quantity = quantity.add(qty);
+            totalInvestment = totalInvestment.add(cost);
+        }
+
+        void sell(BigDecimal qty) {
+            if (quantity.signum() <= 0) {
+                return;
+            }
+            if (qty.compareTo(quantity) >= 0) {
+                quantity = BigDecimal.ZERO;
+                totalInvestment = BigDecimal.ZERO;
+                return;
+            }
+            BigDecimal costRemoved = totalInvestment.multiply(qty).divide(quantity, 8, RoundingMode.HALF_UP);
+            quantity = quantity.subtract(qty);
+            totalInvestment = totalInvestment.subtract(costRemoved);
+        }
+
+        BigDecimal quantity() {
+            return quantity;
+        }
+
+        BigDecimal averageCost() {
+            return quantity.signum() == 0
+                    ? BigDecimal.ZERO
+                    : totalInvestment.divide(quantity, 8, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.PortfolioAnalyticsDto;
+import com.enterprise.portfolio.event.PortfolioHoldingsChangedEvent;
+import com.enterprise.portfolio.exception.BadRequestException;
+import com.enterprise.portfolio.exception.ResourceNotFoundException;
+import com.enterprise.portfolio.repository.PriceHistoryRepository;
+import com.enterprise.portfolio.repository.TransactionRepository;
+import com.enterprise.portfolio.repository.projection.LedgerEntry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Time-weighted return, money-weighted return (XIRR), max drawdown and volatility of a portfolio, computed by
+ * {@link AnalyticsEngine} in one pass over the ledger and daily closes.
+ * <p>
+ * Results are cached per portfolio and range for {@code app.analytics.cache-ttl}, and dropped once the
+ * portfolio's holdings are rebuilt after new transactions.
+ */
+@Slf4j
+@Service
+public class PortfolioAnalyticsService {
+
+    private static final long MAX_DAYS = 7320;
+    private static final int PRICE_LOOKBACK_DAYS = 31;
+    private static final LocalDateTime LEDGER_START = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    private final TransactionRepository transactionRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final Cache<Key, PortfolioAnalyticsDto> cache;
+
+    public PortfolioAnalyticsService(TransactionRepository transactionRepository,
+                                     PriceHistoryRepository priceHistoryRepository,
+                                     @Value("${app.analytics.cache-size:10000}") long cacheSize,
+                                     @Value("${app.analytics.cache-ttl:1h}") Duration cacheTtl) {
+        this.transactionRepository = transactionRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(PortfolioHoldingsChangedEvent event) {
+        cache.asMap().keySet().removeIf(key -> key.portfolioId().equals(event.getPortfolioId()));
+    }
+
+    /**
+     * Analytics of a portfolio of the given user. Ownership and the default start are read in one statement,
+     * which is all a cached range costs.
+     *
+     * @param from first day of the range, defaults to the portfolio's first transaction
+     * @param to   last day of the range, defaults to today
+     */
+    @Transactional(readOnly = true)
+    public PortfolioAnalyticsDto getAnalytics(Long portfolioId, Long userId, LocalDate from, LocalDate to) {
+        List<Object[]> owned = transactionRepository.findFirstTransactionDateIfOwned(portfolioId, userId);
+        if (owned.isEmpty()) {
+            throw new ResourceNotFoundException("Portfolio", "id", portfolioId.toString());
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from;
+        if (start == null) {
+            LocalDateTime first = (LocalDateTime) owned.get(0)[1];
+            start = first != null ? first.toLocalDate() : end;
+        }
+        if (start.isAfter(end)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new BadRequestException("Range is limited to " + MAX_DAYS + " days");
+        }
+
+        Key key = new Key(portfolioId, start, end);
+        PortfolioAnalyticsDto cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        PortfolioAnalyticsDto analytics = compute(portfolioId, start, end);
+        cache.put(key, analytics);
+        return analytics;
+    }
+
+    private PortfolioAnalyticsDto compute(Long portfolioId, LocalDate from, LocalDate to) {
+        long started = System.nanoTime();
+        List<Long> assetIds = transactionRepository.findAssetIds(portfolioId);
+        AnalyticsEngine engine = new AnalyticsEngine(from, to, assetIds, priceHistoryRepository.findDailyCloses(
+                assetIds, from.minusDays(1 + PRICE_LOOKBACK_DAYS).atStartOfDay(), to.plusDays(1).atStartOfDay()));
+
+        // The whole prefix is folded so the opening state of the range is exact
+        try (Stream<LedgerEntry> entries = transactionRepository.streamLedgerBetween(
+                portfolioId, LEDGER_START, to.plusDays(1).atStartOfDay())) {
+            entries.forEach(engine::accept);
+        }
+        AnalyticsEngine.Result result = engine.finish();
+
+        log.debug("Computed analytics of portfolio {} over {} days in {} ms", portfolioId,
+                ChronoUnit.DAYS.between(from, to) + 1, (System.nanoTime() - started) / 1_000_000);
+        return PortfolioAnalyticsDto.builder()
+                .portfolioId(portfolioId)
+                .from(from)
+                .to(to)
+                .openingValue(money(result.openingValue()))
+                .closingValue(money(result.closingValue()))
+                .netFlows(money(result.netFlows()))
+                .timeWeightedReturnPercentage(percentage(result.timeWeightedReturn()))
+                .annualizedTimeWeightedReturnPercentage(percentage(result.annualizedTimeWeightedReturn()))
+                .moneyWeightedReturnPercentage(percentage(result.moneyWeightedReturn()))
+                .maxDrawdownPercentage(percentage(result.maxDrawdown()))
+                .volatilityPercentage(percentage(result.volatility()))
+                .build();
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Double percentage(double fraction) {
+        if (!Double.isFinite(fraction)) {
+            return null;
+        }
+        return BigDecimal.valueOf(fraction * 100).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private record Key(Long portfolioId, LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.enterprise.portfolio.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Portfolio ownership already verified during the current HTTP request, kept in a request attribute, so a
+ * request that reaches the same portfolio through several service calls checks it against the database
+ * once. Outside a request (scheduled jobs, async threads) nothing is cached and every check goes through.
+ */
+@Component
+public class PortfolioOwnershipCache {
+
+    private static final String ATTRIBUTE_PREFIX = PortfolioOwnershipCache.class.getName() + ".";
+
+    public boolean isOwned(Long portfolioId, Long userId) {
+        Set<Long> owned = owned(userId, false);
+        return owned != null && owned.contains(portfolioId);
+    }
+
+    public void markOwned(Long portfolioId, Long userId) {
+        Set<Long> owned = owned(userId, true);
+        if (owned != null) {
+            owned.add(portfolioId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Long> owned(Long userId, boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        String name = ATTRIBUTE_PREFIX + userId;
+        Set<Long> owned = (Set<Long>) attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        if (owned == null && create) {
+            owned = new HashSet<>();
+            attributes.setAttribute(name, owned, RequestAttributes.SCOPE_REQUEST);
+        }
+        return owned;
+    }
+}
@@ -1,74 +1,174 @@
 package com.enterprise.portfolio.service;
 
+import com.enterprise.portfolio.dto.CursorPageDto;
+import com.enterprise.portfolio.dto.PortfolioAnalyticsDto;
 import com.enterprise.portfolio.dto.PortfolioDto;
-import com.enterprise.portfolio.dto.UserDto;
+import com.enterprise.portfolio.dto.PortfolioSummaryDto;
+import com.enterprise.portfolio.dto.PortfolioValuationDto;
+import com.enterprise.portfolio.dto.PortfolioValueSeriesDto;
+import com.enterprise.portfolio.dto.RebalanceModelDto;
+import com.enterprise.portfolio.dto.RebalancePlanDto;
+import com.enterprise.portfolio.dto.TransactionDto;
+import com.enterprise.portfolio.dto.TransactionImportResultDto;
+import com.enterprise.portfolio.dto.UserValueSeriesDto;
 import com.enterprise.portfolio.exception.ResourceAlreadyExistsException;
 import com.enterprise.portfolio.exception.ResourceNotFoundException;
+import com.enterprise.portfolio.mapper.PortfolioMapper;
 import com.enterprise.portfolio.model.Portfolio;
-import com.enterprise.portfolio.model.User;
+import com.enterprise.portfolio.model.Transaction;
 import com.enterprise.portfolio.repository.PortfolioRepository;
+import com.enterprise.portfolio.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Ownership is checked by user id against the portfolio row alone; the user entity is never loaded for it.
+ * Read endpoints issue a single ownership query, remembered for the rest of the request by
+ * {@link PortfolioOwnershipCache}.
+ */
 @Service
 @RequiredArgsConstructor
 public class PortfolioService {
     
     private final PortfolioRepository portfolioRepository;
-    private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final UserRepository userRepository;
+    private final PortfolioOwnershipCache ownershipCache;
+    private final PortfolioMapper portfolioMapper;
+    private final ValuationService valuationService;
+    private final LedgerService ledgerService;
+    private final TransactionImportService transactionImportService;
+    private final TransactionService transactionService;
+    private final PortfolioSummaryService portfolioSummaryService;
+    private final PortfolioValueService portfolioValueService;
+    private final PortfolioAnalyticsService portfolioAnalyticsService;
+    private final RebalanceService rebalanceService;
     
     @Transactional(readOnly = true)
     public List<PortfolioDto> getUserPortfolios(Long userId) {
-        User user = userService.findEntityById(userId);
-        return portfolioRepository.findByUser(user).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return portfolioRepository.findDtosByUserId(userId);
+    }
+    
+    /**
+     * Dashboard view: one precomputed summary row per portfolio, read in a single query.
+     */
+    @Transactional(readOnly = true)
+    public List<PortfolioSummaryDto> getUserPortfolioSummaries(Long userId) {
+        return portfolioSummaryService.getUserSummaries(userId);
     }
     
     @Transactional(readOnly = true)
     public PortfolioDto getPortfolio(Long portfolioId, Long userId) {
-        User user = userService.findEntityById(userId);
-        return portfolioRepository.findByIdAndUser(portfolioId, user)
-                .map(this::convertToDto)
+        PortfolioDto portfolio = portfolioRepository.findDtoByIdAndUserId(portfolioId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "id", portfolioId.toString()));
+        ownershipCache.markOwned(portfolioId, userId);
+        return portfolio;
+    }
+    
+    // The read endpoints below check ownership inside their own query, so each costs one statement
+    
+    @Transactional(readOnly = true)
+    public PortfolioValuationDto getPortfolioValuation(Long portfolioId, Long userId) {
+        PortfolioValuationDto valuation = valuationService.getPortfolioValuation(portfolioId, userId);
+        ownershipCache.markOwned(portfolioId, userId);
+        return valuation;
+    }
+    
+    public PortfolioAnalyticsDto getAnalytics(Long portfolioId, Long userId, LocalDate from, LocalDate to) {
+        PortfolioAnalyticsDto analytics = portfolioAnalyticsService.getAnalytics(portfolioId, userId, from, to);
+        ownershipCache.markOwned(portfolioId, userId);
+        return analytics;
+    }
+    
+    public PortfolioValueSeriesDto getValueSeries(Long portfolioId, Long userId, LocalDate from, LocalDate to) {
+        PortfolioValueSeriesDto series = portfolioValueService.getValueSeries(portfolioId, userId, from, to);
+        ownershipCache.markOwned(portfolioId, userId);
+        return series;
+    }
+    
+    /**
+     * Value series of all of a user's portfolios, computed in parallel, plus the combined series.
+     */
+    public UserValueSeriesDto getUserValueSeries(Long userId, LocalDate from, LocalDate to) {
+        List<Long> portfolioIds = portfolioRepository.findIdsByUserId(userId);
+        return portfolioValueService.getValueSeries(portfolioIds, from, to);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<TransactionDto> getTransactionHistory(Long portfolioId, Long userId,
+                                                               Transaction.TransactionType type, Long assetId,
+                                                               LocalDateTime from, LocalDateTime to,
+                                                               String cursor, int size) {
+        CursorPageDto<TransactionDto> page = transactionService.getTransactionHistory(
+                portfolioId, userId, type, assetId, from, to, cursor, size);
+        if (page.getContent().isEmpty()) {
+            // An empty page is either an empty history or someone else's portfolio
+            checkOwnership(portfolioId, userId);
+        } else {
+            ownershipCache.markOwned(portfolioId, userId);
+        }
+        return page;
+    }
+    
+    @Transactional
+    public long rebuildHoldings(Long portfolioId, Long userId) {
+        checkOwnership(portfolioId, userId);
+        return ledgerService.rebuildHoldings(portfolioId);
+    }
+    
+    @Transactional
+    public RebalancePlanDto rebalance(Long portfolioId, Long userId, RebalanceModelDto model, boolean execute) {
+        String username = portfolioRepository.findOwnerUsername(portfolioId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "id", portfolioId.toString()));
+        return rebalanceService.rebalance(portfolioId, model, execute, username);
+    }
+    
+    /**
+     * Not transactional on purpose: the import commits chunk by chunk.
+     */
+    public TransactionImportResultDto importTransactions(Long portfolioId, Long userId,
+                                                         TransactionImportService.Format format, InputStream body) {
+        String username = portfolioRepository.findOwnerUsername(portfolioId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "id", portfolioId.toString()));
+        return transactionImportService.importTransactions(portfolioId, format, body, username);
     }
     
     @Transactional
     public PortfolioDto createPortfolio(PortfolioDto portfolioDto, Long userId) {
-        // Get the user entity directly from the service
-        User user = userService.findEntityById(userId);
-        
-        if (portfolioRepository.existsByNameAndUser(portfolioDto.getName(), user)) {
+        if (portfolioRepository.existsByNameAndUserId(portfolioDto.getName(), userId)) {
             throw new ResourceAlreadyExistsException("Portfolio", "name", portfolioDto.getName());
         }
         
         Portfolio portfolio = new Portfolio();
         portfolio.setName(portfolioDto.getName());
         portfolio.setDescription(portfolioDto.getDescription());
-        portfolio.setUser(user);
+        // Reference only: the insert needs the user id, not the user row
+        portfolio.setUser(userRepository.getReferenceById(userId));
         
         Portfolio savedPortfolio = portfolioRepository.save(portfolio);
+        portfolioSummaryService.create(savedPortfolio);
         return convertToDto(savedPortfolio);
     }
     
     @Transactional
     public PortfolioDto updatePortfolio(Long portfolioId, PortfolioDto portfolioDto, Long userId) {
-        User user = userService.findEntityById(userId);
-        Portfolio portfolio = portfolioRepository.findByIdAndUser(portfolioId, user)
+        Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "id", portfolioId.toString()));
         
         // Check if the new name is already taken by another portfolio of the same user
         if (!portfolio.getName().equals(portfolioDto.getName()) && 
-            portfolioRepository.existsByNameAndUser(portfolioDto.getName(), user)) {
+            portfolioRepository.existsByNameAndUserId(portfolioDto.getName(), userId)) {
             throw new ResourceAlreadyExistsException("Portfolio", "name", portfolioDto.getName());
         }
         
+        if (!portfolio.getName().equals(portfolioDto.getName())) {
+            portfolioSummaryService.rename(portfolioId, portfolioDto.getName());
+        }
         portfolio.setName(portfolioDto.getName());
         portfolio.setDescription(portfolioDto.getDescription());
         
@@ -78,16 +178,23 @@ public class PortfolioService {
     
     @Transactional
     public void deletePortfolio(Long portfolioId, Long userId) {
-        User user = userService.findEntityById(userId);
-        Portfolio portfolio = portfolioRepository.findByIdAndUser(portfolioId, user)
+        Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "id", portfolioId.toString()));
         
         portfolioRepository.delete(portfolio);
     }
     
+    private void checkOwnership(Long portfolioId, Long userId) {
+        if (ownershipCache.isOwned(portfolioId, userId)) {
+            return;
+        }
+        if (!portfolioRepository.existsByIdAndUserId(portfolioId, userId)) {
+            throw new ResourceNotFoundException("Portfolio", "id", portfolioId.toString());
+        }
+        ownershipCache.markOwned(portfolioId, userId);
+    }
+    
     private PortfolioDto convertToDto(Portfolio portfolio) {
-        PortfolioDto dto = modelMapper.map(portfolio, PortfolioDto.class);
-        dto.setUserId(portfolio.getUser().getId());
-        return dto;
+        return portfolioMapper.toDto(portfolio);
     }
 }
@@ -0,0 +1,162 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.PortfolioSummaryDto;
+import com.enterprise.portfolio.event.PortfolioHoldingsChangedEvent;
+import com.enterprise.portfolio.event.PortfolioRevaluedEvent;
+import com.enterprise.portfolio.model.Portfolio;
+import com.enterprise.portfolio.model.PortfolioSummary;
+import com.enterprise.portfolio.repository.HoldingRepository;
+import com.enterprise.portfolio.repository.PortfolioRepository;
+import com.enterprise.portfolio.repository.PortfolioSummaryRepository;
+import com.enterprise.portfolio.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the {@link PortfolioSummary} read model behind the dashboard.
+ * <p>
+ * Price moves are applied as in-place deltas from {@link PortfolioRevaluedEvent}s. Holding rewrites
+ * ({@link PortfolioHoldingsChangedEvent}) recompute the row from that portfolio's holdings only, including the
+ * top allocations and the last transaction time. The dashboard then reads one row per portfolio.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PortfolioSummaryService {
+
+    private static final int TOP_ALLOCATIONS = 5;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final PortfolioSummaryRepository summaryRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final HoldingRepository holdingRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Transactional(readOnly = true)
+    public List<PortfolioSummaryDto> getUserSummaries(Long userId) {
+        return summaryRepository.findByUserIdOrderByPortfolioName(userId).stream()
+                .map(PortfolioSummaryService::toDto)
+                .toList();
+    }
+
+    @EventListener
+    @Transactional
+    public void onPortfolioRevalued(PortfolioRevaluedEvent event) {
+        summaryRepository.applyDelta(event.getPortfolioId(), event.getValueDelta(), event.getProfitLossDelta());
+    }
+
+    @EventListener
+    @Transactional
+    public void onHoldingsChanged(PortfolioHoldingsChangedEvent event) {
+        refresh(event.getPortfolioId());
+    }
+
+    /**
+     * Register the summary row of a newly created portfolio.
+     */
+    @Transactional
+    public void create(Portfolio portfolio) {
+        summaryRepository.save(PortfolioSummary.builder()
+                .portfolioId(portfolio.getId())
+                .userId(portfolio.getUser().getId())
+                .portfolioName(portfolio.getName())
+                .build());
+    }
+
+    @Transactional
+    public void rename(Long portfolioId, String name) {
+        summaryRepository.rename(portfolioId, name);
+    }
+
+    /**
+     * Recompute the summary of a single portfolio from its holdings. The row is locked before the holdings are
+     * read, so a concurrent revaluation delta lands either before the recompute (and is included in it) or after.
+     */
+    @Transactional
+    public void refresh(Long portfolioId) {
+        PortfolioSummary summary = summaryRepository.findByPortfolioIdForUpdate(portfolioId).orElseGet(() -> {
+            Portfolio portfolio = portfolioRepository.getReferenceById(portfolioId);
+            return PortfolioSummary.builder()
+                    .portfolioId(portfolioId)
+                    .userId(portfolio.getUser().getId())
+                    .portfolioName(portfolio.getName())
+                    .build();
+        });
+
+        Object[] totals = holdingRepository.sumByPortfolioId(portfolioId).get(0);
+        BigDecimal totalValue = toBigDecimal(totals[0]);
+        summary.setTotalValue(totalValue);
+        summary.setTotalInvestment(toBigDecimal(totals[1]));
+        summary.setProfitLoss(toBigDecimal(totals[2]));
+        summary.setHoldingCount(((Number) totals[3]).intValue());
+        summary.setTopAllocations(encodeAllocations(
+                holdingRepository.findTopValuesByPortfolioId(portfolioId, PageRequest.of(0, TOP_ALLOCATIONS)),
+                totalValue));
+        summary.setLastTransactionAt(transactionRepository.findLastTransactionDate(portfolioId));
+
+        summaryRepository.save(summary);
+        log.debug("Refreshed summary of portfolio {}", portfolioId);
+    }
+
+    private static String encodeAllocations(List<Object[]> topValues, BigDecimal totalValue) {
+        if (topValues.isEmpty() || totalValue.signum() == 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Object[] row : topValues) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            BigDecimal percentage = toBigDecimal(row[1]).multiply(HUNDRED).divide(totalValue, 2, RoundingMode.HALF_UP);
+            sb.append(row[0]).append(':').append(percentage.toPlainString());
+        }
+        return sb.toString();
+    }
+
+    private static List<PortfolioSummaryDto.Allocation> decodeAllocations(String encoded) {
+        List<PortfolioSummaryDto.Allocation> allocations = new ArrayList<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return allocations;
+        }
+        for (String pair : encoded.split(";")) {
+            int separator = pair.lastIndexOf(':');
+            allocations.add(new PortfolioSummaryDto.Allocation(
+                    pair.substring(0, separator), new BigDecimal(pair.substring(separator + 1))));
+        }
+        return allocations;
+    }
+
+    private static PortfolioSummaryDto toDto(PortfolioSummary summary) {
+        Double profitLossPercentage = summary.getTotalInvestment().signum() == 0
+                ? null
+                : summary.getProfitLoss().multiply(HUNDRED)
+                        .divide(summary.getTotalInvestment(), 2, RoundingMode.HALF_UP).doubleValue();
+        return PortfolioSummaryDto.builder()
+                .portfolioId(summary.getPortfolioId())
+                .name(summary.getPortfolioName())
+                .totalValue(summary.getTotalValue())
+                .totalInvestment(summary.getTotalInvestment())
+                .profitLoss(summary.getProfitLoss())
+                .profitLossPercentage(profitLossPercentage)
+                .holdingCount(summary.getHoldingCount())
+                .topAllocations(decodeAllocations(summary.getTopAllocations()))
+                .lastTransactionAt(summary.getLastTransactionAt())
+                .build();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+}
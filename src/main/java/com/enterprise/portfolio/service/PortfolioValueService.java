@@ -0,0 +1,298 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.PortfolioValueSeriesDto;
+import com.enterprise.portfolio.dto.UserValueSeriesDto;
+import com.enterprise.portfolio.event.PortfolioHoldingsChangedEvent;
+import com.enterprise.portfolio.exception.BadRequestException;
+import com.enterprise.portfolio.exception.ResourceNotFoundException;
+import com.enterprise.portfolio.model.Transaction.TransactionType;
+import com.enterprise.portfolio.repository.PortfolioRepository;
+import com.enterprise.portfolio.repository.PriceHistoryRepository;
+import com.enterprise.portfolio.repository.TransactionRepository;
+import com.enterprise.portfolio.repository.projection.LedgerEntry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Daily value series and time-weighted return of portfolios, from the ledger and daily closing prices.
+ * <p>
+ * Per portfolio, the ledger is folded once into a {@link Timeline} of end-of-day quantities, kept only for
+ * days with transactions, and memoized. Later requests reuse it and only fold the ledger beyond the covered
+ * date, so overlapping chart ranges never replay the same transactions twice. Timelines are dropped when a
+ * portfolio's holdings are rebuilt, which is what every ledger write ends with.
+ * <p>
+ * Series for several portfolios are computed in parallel on a bounded {@link ForkJoinPool}
+ * ({@code app.valuation.series.parallelism}); each task holds a database connection, so keep the parallelism
+ * well below the connection pool size.
+ */
+@Slf4j
+@Service
+public class PortfolioValueService {
+
+    private static final long MAX_DAYS = 3660;
+    // Carry prices forward over weekends and market holidays
+    private static final int PRICE_LOOKBACK_DAYS = 31;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final TransactionRepository transactionRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+    private final Cache<Long, Timeline> timelines;
+
+    public PortfolioValueService(TransactionRepository transactionRepository,
+                                 PriceHistoryRepository priceHistoryRepository,
+                                 PortfolioRepository portfolioRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.valuation.series.parallelism:4}") int parallelism,
+                                 @Value("${app.valuation.series.cached-portfolios:1000}") long cachedPortfolios) {
+        this.transactionRepository = transactionRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism);
+        this.timelines = Caffeine.newBuilder().maximumSize(cachedPortfolios).build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // After commit, so a concurrent request cannot re-memoize the pre-rebuild ledger
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(PortfolioHoldingsChangedEvent event) {
+        timelines.invalidate(event.getPortfolioId());
+    }
+
+    /**
+     * Series of a portfolio of the given user. Ownership is checked by the daily closes query, so a memoized
+     * timeline costs one statement; a timeline that has to be extended is only folded after a separate
+     * ownership check, so nobody can make the server read a ledger they do not own.
+     */
+    public PortfolioValueSeriesDto getValueSeries(Long portfolioId, Long userId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return compute(portfolioId, userId, from, to);
+    }
+
+    /**
+     * Series of every given portfolio, computed in parallel, plus their combined series.
+     */
+    public UserValueSeriesDto getValueSeries(List<Long> portfolioIds, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        List<CompletableFuture<PortfolioValueSeriesDto>> futures = portfolioIds.stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> compute(id, null, from, to), pool))
+                .toList();
+        List<PortfolioValueSeriesDto> series = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<PortfolioValueSeriesDto> future : futures) {
+                series.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return UserValueSeriesDto.builder()
+                .total(combine(series, from, to))
+                .portfolios(series)
+                .build();
+    }
+
+    /**
+     * @param userId owner to check the portfolio against, or null when the caller already resolved it
+     */
+    private PortfolioValueSeriesDto compute(Long portfolioId, Long userId, LocalDate from, LocalDate to) {
+        Timeline memoized = timelines.getIfPresent(portfolioId);
+        if (userId != null && (memoized == null || !memoized.covers(to))
+                && !portfolioRepository.existsByIdAndUserId(portfolioId, userId)) {
+            throw new ResourceNotFoundException("Portfolio", "id", portfolioId.toString());
+        }
+        Timeline timeline = memoized != null ? memoized : timelines.get(portfolioId, id -> new Timeline());
+        timeline.extendThrough(portfolioId, to);
+
+        Set<Long> assetIds = new HashSet<>();
+        Map.Entry<LocalDate, Map<Long, BigDecimal>> opening = timeline.quantities.floorEntry(from);
+        if (opening != null) {
+            assetIds.addAll(opening.getValue().keySet());
+        }
+        timeline.quantities.subMap(from, true, to, true).values().forEach(q -> assetIds.addAll(q.keySet()));
+
+        LocalDateTime closesFrom = from.minusDays(PRICE_LOOKBACK_DAYS).atStartOfDay();
+        LocalDateTime closesTo = to.plusDays(1).atStartOfDay();
+        Map<Long, NavigableMap<LocalDate, BigDecimal>> closes = userId == null
+                ? priceHistoryRepository.findDailyCloses(assetIds, closesFrom, closesTo)
+                : priceHistoryRepository.findDailyClosesIfOwned(portfolioId, userId, assetIds, closesFrom, closesTo)
+                        .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "id", portfolioId.toString()));
+
+        List<PortfolioValueSeriesDto.Point> points = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Map.Entry<LocalDate, Map<Long, BigDecimal>> entry = timeline.quantities.floorEntry(day);
+            BigDecimal value = BigDecimal.ZERO;
+            if (entry != null) {
+                for (Map.Entry<Long, BigDecimal> position : entry.getValue().entrySet()) {
+                    NavigableMap<LocalDate, BigDecimal> assetCloses = closes.get(position.getKey());
+                    Map.Entry<LocalDate, BigDecimal> close = assetCloses != null ? assetCloses.floorEntry(day) : null;
+                    if (close != null) {
+                        value = value.add(position.getValue().multiply(close.getValue()));
+                    }
+                }
+            }
+            points.add(new PortfolioValueSeriesDto.Point(day, value.setScale(2, RoundingMode.HALF_UP),
+                    timeline.flows.getOrDefault(day, BigDecimal.ZERO)));
+        }
+        return series(portfolioId, from, to, points);
+    }
+
+    private static PortfolioValueSeriesDto combine(List<PortfolioValueSeriesDto> series, LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        List<PortfolioValueSeriesDto.Point> points = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            BigDecimal value = BigDecimal.ZERO;
+            BigDecimal flow = BigDecimal.ZERO;
+            for (PortfolioValueSeriesDto portfolio : series) {
+                PortfolioValueSeriesDto.Point point = portfolio.getPoints().get(i);
+                value = value.add(point.getValue());
+                flow = flow.add(point.getNetFlow());
+            }
+            points.add(new PortfolioValueSeriesDto.Point(from.plusDays(i), value, flow));
+        }
+        return series(null, from, to, points);
+    }
+
+    /**
+     * Chain daily returns with that day's flow removed: r = (V_t - F_t) / V_{t-1}. Days that start from a zero
+     * value carry no return.
+     */
+    private static PortfolioValueSeriesDto series(Long portfolioId, LocalDate from, LocalDate to,
+                                                  List<PortfolioValueSeriesDto.Point> points) {
+        BigDecimal growth = BigDecimal.ONE;
+        boolean any = false;
+        for (int i = 1; i < points.size(); i++) {
+            BigDecimal previous = points.get(i - 1).getValue();
+            if (previous.signum() <= 0) {
+                continue;
+            }
+            PortfolioValueSeriesDto.Point point = points.get(i);
+            growth = growth.multiply(point.getValue().subtract(point.getNetFlow())
+                    .divide(previous, MathContext.DECIMAL64), MathContext.DECIMAL64);
+            any = true;
+        }
+        Double twr = any
+                ? growth.subtract(BigDecimal.ONE).multiply(HUNDRED).setScale(2, RoundingMode.HALF_UP).doubleValue()
+                : null;
+        return PortfolioValueSeriesDto.builder()
+                .portfolioId(portfolioId)
+                .from(from)
+                .to(to)
+                .points(points)
+                .timeWeightedReturnPercentage(twr)
+                .build();
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new BadRequestException("Range is limited to " + MAX_DAYS + " days");
+        }
+    }
+
+    private static BigDecimal flowOf(LedgerEntry entry) {
+        if (entry.getAssetId() == null || entry.getQuantity() == null) {
+            return BigDecimal.ZERO;
+        }
+        TransactionType type = entry.getType();
+        boolean buy = type == TransactionType.BUY
+                || (type == TransactionType.REBALANCE && entry.getQuantity().signum() >= 0);
+        boolean sell = type == TransactionType.SELL
+                || (type == TransactionType.REBALANCE && entry.getQuantity().signum() < 0);
+        if (!buy && !sell) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal amount = entry.getTotalAmount() != null
+                ? entry.getTotalAmount().abs()
+                : entry.getQuantity().abs().multiply(entry.getPricePerUnit() != null ? entry.getPricePerUnit() : BigDecimal.ZERO);
+        return buy ? amount : amount.negate();
+    }
+
+    /**
+     * Memoized fold of one portfolio's ledger: quantities at the end of every day that had transactions, and
+     * the buy/sell flows of those days, complete for all days up to {@code coveredThrough}.
+     */
+    private final class Timeline {
+        private final ConcurrentSkipListMap<LocalDate, Map<Long, BigDecimal>> quantities = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<LocalDate, BigDecimal> flows = new ConcurrentSkipListMap<>();
+        private final Map<Long, LedgerService.Position> positions = new HashMap<>();
+        private LocalDate coveredThrough;
+
+        synchronized boolean covers(LocalDate to) {
+            return coveredThrough != null && !to.isAfter(coveredThrough);
+        }
+
+        synchronized void extendThrough(Long portfolioId, LocalDate to) {
+            if (covers(to)) {
+                return;
+            }
+            LocalDateTime start = coveredThrough != null
+                    ? coveredThrough.plusDays(1).atStartOfDay()
+                    : LocalDateTime.of(1000, 1, 1, 0, 0);
+            LocalDateTime until = to.plusDays(1).atStartOfDay();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<LedgerEntry> entries = transactionRepository.streamLedgerBetween(portfolioId, start, until)) {
+                    LocalDate currentDay = null;
+                    Iterator<LedgerEntry> iterator = entries.iterator();
+                    while (iterator.hasNext()) {
+                        LedgerEntry entry = iterator.next();
+                        LocalDate day = entry.getTransactionDate().toLocalDate();
+                        if (currentDay != null && !day.equals(currentDay)) {
+                            snapshot(currentDay);
+                        }
+                        currentDay = day;
+                        LedgerService.apply(positions, entry);
+                        flows.merge(day, flowOf(entry), BigDecimal::add);
+                    }
+                    if (currentDay != null) {
+                        snapshot(currentDay);
+                    }
+                }
+            });
+            coveredThrough = to;
+            log.debug("Extended ledger timeline of portfolio {} through {}", portfolioId, to);
+        }
+
+        private void snapshot(LocalDate day) {
+            Map<Long, BigDecimal> held = new HashMap<>();
+            positions.forEach((assetId, position) -> {
+                if (position.quantity().signum() > 0) {
+                    held.put(assetId, position.quantity());
+                }
+            });
+            quantities.put(day, Map.copyOf(held));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.PriceTickDto;
+
+import java.util.function.Consumer;
+
+/**
+ * Source of price ticks, e.g. an exchange websocket. Every {@code PriceFeed} bean is started by
+ * {@link PriceIngestionService} once the application is ready and stopped on shutdown.
+ */
+public interface PriceFeed {
+
+    String getName();
+
+    /**
+     * Start pushing ticks to {@code sink}. Implementations own their threads; the sink is thread-safe and
+     * never blocks.
+     */
+    void start(Consumer<PriceTickDto> sink);
+
+    void stop();
+}
@@ -0,0 +1,261 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.PriceBarDto;
+import com.enterprise.portfolio.exception.BadRequestException;
+import com.enterprise.portfolio.repository.PriceHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Asset price history: raw window closes plus 1m/1h/1d OHLC rollups, all maintained on the ingestion write
+ * path, and downsampled series reads for charts.
+ * <p>
+ * Raw ticks and the finer rollups are retained for a configurable window and compacted nightly; daily bars
+ * are kept forever, so storage grows with the number of assets and days only.
+ */
+@Slf4j
+@Service
+public class PriceHistoryService {
+
+    public enum Rollup {
+        MINUTE("1m", ChronoUnit.MINUTES),
+        HOUR("1h", ChronoUnit.HOURS),
+        DAY("1d", ChronoUnit.DAYS);
+
+        private final String code;
+        private final ChronoUnit unit;
+
+        Rollup(String code, ChronoUnit unit) {
+            this.code = code;
+            this.unit = unit;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        Duration duration() {
+            return unit.getDuration();
+        }
+
+        LocalDateTime bucketOf(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+    }
+
+    private static final String RAW = "raw";
+    private static final int MAX_POINTS = 10_000;
+    private static final Duration MAX_RAW_RANGE = Duration.ofDays(1);
+    private static final int DELETE_CHUNK_SIZE = 10_000;
+
+    private final PriceHistoryRepository historyRepository;
+    private final Duration rawRetention;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+
+    public PriceHistoryService(PriceHistoryRepository historyRepository,
+                               @Value("${app.prices.history.raw-retention:7d}") Duration rawRetention,
+                               @Value("${app.prices.history.minute-retention:30d}") Duration minuteRetention,
+                               @Value("${app.prices.history.hour-retention:730d}") Duration hourRetention) {
+        this.historyRepository = historyRepository;
+        this.rawRetention = rawRetention;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+    }
+
+    /**
+     * Append one ingestion window: the closing price as a raw tick and the window's OHLC folded into every
+     * rollup. Must run inside the caller's transaction.
+     */
+    public void record(List<Window> windows) {
+        if (windows.isEmpty()) {
+            return;
+        }
+        List<PriceHistoryRepository.Tick> ticks = new ArrayList<>(windows.size());
+        List<PriceHistoryRepository.BarUpdate> bars = new ArrayList<>(windows.size() * Rollup.values().length);
+        for (Window window : windows) {
+            ticks.add(new PriceHistoryRepository.Tick(window.assetId(), window.closeAt(), window.close()));
+            for (Rollup rollup : Rollup.values()) {
+                // A window straddling a bucket boundary is attributed to the bucket it opened in
+                bars.add(new PriceHistoryRepository.BarUpdate(window.assetId(), rollup.getCode(),
+                        rollup.bucketOf(window.openAt()), window.open(), window.high(), window.low(), window.close(),
+                        window.openAt(), window.closeAt(), window.ticks()));
+            }
+        }
+        historyRepository.appendTicks(ticks);
+        historyRepository.upsertBars(bars);
+    }
+
+    /**
+     * Price series of an asset over {@code [from, to)}.
+     *
+     * @param resolution {@code raw}, or a bucket size such as {@code 1m}, {@code 15m}, {@code 4h}, {@code 7d}
+     */
+    public List<PriceBarDto> getSeries(long assetId, LocalDateTime from, LocalDateTime to, String resolution) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+        Duration range = Duration.between(from, to);
+
+        if (RAW.equalsIgnoreCase(resolution)) {
+            if (range.compareTo(MAX_RAW_RANGE) > 0) {
+                throw new BadRequestException("raw resolution is limited to ranges of " + MAX_RAW_RANGE.toHours() + "h");
+            }
+            if (from.isBefore(LocalDateTime.now().minus(rawRetention))) {
+                throw new BadRequestException("Raw ticks are kept for " + rawRetention.toDays()
+                        + " days; use a bar resolution for older ranges");
+            }
+            return toDtos(historyRepository.findTicks(assetId, from, to));
+        }
+
+        Duration bucket = parseResolution(resolution);
+        if (range.dividedBy(bucket) > MAX_POINTS) {
+            throw new BadRequestException("Range too large for resolution " + resolution + " (max " + MAX_POINTS + " points)");
+        }
+
+        Rollup source = sourceFor(bucket);
+        checkRetained(source, resolution, from);
+        List<PriceHistoryRepository.Bar> bars = historyRepository.findBars(assetId, source.getCode(),
+                source.bucketOf(from), to);
+        if (source.duration().equals(bucket)) {
+            return toDtos(bars);
+        }
+        return toDtos(downsample(bars, bucket));
+    }
+
+    @Scheduled(cron = "${app.prices.history.compaction-cron:0 30 3 * * *}")
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        long ticks = deleteInChunks(() -> historyRepository.deleteTicksBefore(now.minus(rawRetention), DELETE_CHUNK_SIZE));
+        long minuteBars = deleteInChunks(() -> historyRepository.deleteBarsBefore(
+                Rollup.MINUTE.getCode(), now.minus(minuteRetention), DELETE_CHUNK_SIZE));
+        long hourBars = deleteInChunks(() -> historyRepository.deleteBarsBefore(
+                Rollup.HOUR.getCode(), now.minus(hourRetention), DELETE_CHUNK_SIZE));
+        log.info("Price history compaction removed {} raw ticks, {} 1m bars and {} 1h bars", ticks, minuteBars, hourBars);
+    }
+
+    private static long deleteInChunks(IntSupplier deleteChunk) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = deleteChunk.getAsInt();
+            total += deleted;
+        } while (deleted >= DELETE_CHUNK_SIZE);
+        return total;
+    }
+
+    private static Duration parseResolution(String resolution) {
+        Duration bucket;
+        try {
+            bucket = DurationStyle.detectAndParse(resolution);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid resolution '" + resolution + "'");
+        }
+        if (bucket.compareTo(Rollup.MINUTE.duration()) < 0 || bucket.toSeconds() % 60 != 0) {
+            throw new BadRequestException("Resolution must be 'raw' or a whole number of minutes");
+        }
+        return bucket;
+    }
+
+    /**
+     * Reject ranges reaching past the retention of the rollup the series would be built from: compaction has
+     * deleted those bars, and the series would silently come back empty. No coarser rollup can stand in, as
+     * the source already is the coarsest one that divides the requested bucket.
+     */
+    private void checkRetained(Rollup source, String resolution, LocalDateTime from) {
+        Duration retention = switch (source) {
+            case MINUTE -> minuteRetention;
+            case HOUR -> hourRetention;
+            case DAY -> null;
+        };
+        if (retention != null && from.isBefore(LocalDateTime.now().minus(retention))) {
+            Rollup coarser = Rollup.values()[source.ordinal() + 1];
+            throw new BadRequestException("Resolution " + resolution + " is built from " + source.getCode()
+                    + " bars, which are kept for " + retention.toDays() + " days; use a multiple of "
+                    + coarser.getCode() + " for older ranges");
+        }
+    }
+
+    /**
+     * Coarsest stored rollup whose bucket evenly divides the requested one.
+     */
+    private static Rollup sourceFor(Duration bucket) {
+        Rollup[] rollups = Rollup.values();
+        for (int i = rollups.length - 1; i >= 0; i--) {
+            if (bucket.toSeconds() % rollups[i].duration().toSeconds() == 0) {
+                return rollups[i];
+            }
+        }
+        return Rollup.MINUTE;
+    }
+
+    /**
+     * Merge consecutive stored bars into buckets of {@code bucket}, aligned to the UTC epoch.
+     */
+    private static List<PriceHistoryRepository.Bar> downsample(List<PriceHistoryRepository.Bar> bars, Duration bucket) {
+        List<PriceHistoryRepository.Bar> result = new ArrayList<>();
+        long bucketSeconds = bucket.toSeconds();
+        LocalDateTime currentStart = null;
+        BigDecimal open = null, high = null, low = null, close = null;
+        int ticks = 0;
+        for (PriceHistoryRepository.Bar bar : bars) {
+            long epochSeconds = bar.time().toEpochSecond(ZoneOffset.UTC);
+            LocalDateTime start = LocalDateTime.ofEpochSecond(epochSeconds - Math.floorMod(epochSeconds, bucketSeconds),
+                    0, ZoneOffset.UTC);
+            if (!start.equals(currentStart)) {
+                if (currentStart != null) {
+                    result.add(new PriceHistoryRepository.Bar(currentStart, open, high, low, close, ticks));
+                }
+                currentStart = start;
+                open = bar.open();
+                high = bar.high();
+                low = bar.low();
+                ticks = 0;
+            } else {
+                high = high.max(bar.high());
+                low = low.min(bar.low());
+            }
+            close = bar.close();
+            ticks += bar.ticks();
+        }
+        if (currentStart != null) {
+            result.add(new PriceHistoryRepository.Bar(currentStart, open, high, low, close, ticks));
+        }
+        return result;
+    }
+
+    private static List<PriceBarDto> toDtos(List<PriceHistoryRepository.Bar> bars) {
+        return bars.stream()
+                .map(bar -> PriceBarDto.builder()
+                        .time(bar.time())
+                        .open(bar.open())
+                        .high(bar.high())
+                        .low(bar.low())
+                        .close(bar.close())
+                        .ticks(bar.ticks())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * OHLC of one asset within one ingestion window.
+     */
+    public record Window(long assetId,
+                         BigDecimal open, LocalDateTime openAt,
+                         BigDecimal high, BigDecimal low,
+                         BigDecimal close, LocalDateTime closeAt,
+                         int ticks) {
+    }
+}
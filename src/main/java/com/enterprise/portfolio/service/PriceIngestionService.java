@@ -0,0 +1,190 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.PriceTickDto;
+import com.enterprise.portfolio.event.AssetPriceChangedEvent;
+import com.enterprise.portfolio.model.Asset;
+import com.enterprise.portfolio.repository.AssetPriceWriter;
+import com.enterprise.portfolio.repository.AssetRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests price ticks from the HTTP batch endpoint and from every {@link PriceFeed} bean.
+ * <p>
+ * Ticks are coalesced per symbol in a {@link ConcurrentHashMap} into one OHLC entry per window, so a burst
+ * of thousands of ticks for a few hundred symbols costs a few hundred map entries. Every
+ * {@code app.prices.flush-interval-ms} the map is drained: the window bars go to {@link PriceHistoryService},
+ * the closing prices are written with one JDBC batch, the {@link PriceTable} is updated, and an
+ * {@link AssetPriceChangedEvent} is published for each asset whose price actually moved.
+ */
+@Slf4j
+@Service
+public class PriceIngestionService {
+
+    private final AssetRepository assetRepository;
+    private final AssetPriceWriter priceWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricsService metricsService;
+    private final PriceTable priceTable;
+    private final PriceHistoryService priceHistoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final List<PriceFeed> feeds;
+
+    private final ConcurrentHashMap<String, PendingPrice> pending = new ConcurrentHashMap<>();
+    // Symbol -> asset id; unknown symbols are not cached so newly created assets are picked up
+    private final ConcurrentHashMap<String, Long> assetIds = new ConcurrentHashMap<>();
+
+    public PriceIngestionService(AssetRepository assetRepository,
+                                 AssetPriceWriter priceWriter,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MetricsService metricsService,
+                                 PriceTable priceTable,
+                                 PriceHistoryService priceHistoryService,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectProvider<PriceFeed> feeds) {
+        this.assetRepository = assetRepository;
+        this.priceWriter = priceWriter;
+        this.eventPublisher = eventPublisher;
+        this.metricsService = metricsService;
+        this.priceTable = priceTable;
+        this.priceHistoryService = priceHistoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.feeds = feeds.orderedStream().toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFeeds() {
+        for (PriceFeed feed : feeds) {
+            log.info("Starting price feed {}", feed.getName());
+            feed.start(this::accept);
+        }
+    }
+
+    @PreDestroy
+    public void stopFeeds() {
+        feeds.forEach(PriceFeed::stop);
+        flush();
+    }
+
+    /**
+     * Record a tick. Lock-free; the pending entry of a symbol keeps the OHLC of its window, so the latest
+     * price is the close and an older tick never replaces a newer one.
+     */
+    public void accept(PriceTickDto tick) {
+        LocalDateTime timestamp = tick.getTimestamp() != null ? tick.getTimestamp() : LocalDateTime.now();
+        pending.merge(tick.getSymbol().trim().toUpperCase(Locale.ROOT),
+                PendingPrice.of(tick.getPrice(), timestamp), PendingPrice::merge);
+        metricsService.incrementCounter("prices.ticks.received");
+    }
+
+    public int acceptAll(List<PriceTickDto> ticks) {
+        ticks.forEach(this::accept);
+        return ticks.size();
+    }
+
+    /**
+     * Drain the coalesced ticks and write them in a single batch.
+     *
+     * @return number of asset prices updated
+     */
+    @Scheduled(fixedDelayString = "${app.prices.flush-interval-ms:1000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+
+        List<AssetPriceWriter.Price> prices = new ArrayList<>(pending.size());
+        List<PriceHistoryService.Window> windows = new ArrayList<>(pending.size());
+        // remove() per key keeps ticks that arrive during the drain for the next window
+        Iterator<String> symbols = pending.keySet().iterator();
+        while (symbols.hasNext()) {
+            String symbol = symbols.next();
+            PendingPrice tick = pending.remove(symbol);
+            if (tick == null) {
+                continue;
+            }
+            Long assetId = assetIds.computeIfAbsent(symbol,
+                    s -> assetRepository.findBySymbol(s).map(Asset::getId).orElse(null));
+            if (assetId == null) {
+                metricsService.incrementCounter("prices.ticks.unknown_symbol");
+                continue;
+            }
+            prices.add(new AssetPriceWriter.Price(assetId, tick.close(), tick.closeAt()));
+            windows.add(new PriceHistoryService.Window(assetId, tick.open(), tick.openAt(), tick.high(), tick.low(),
+                    tick.close(), tick.closeAt(), tick.ticks()));
+        }
+        if (prices.isEmpty()) {
+            return 0;
+        }
+
+        int[] counts = transactionTemplate.execute(status -> {
+            // History keeps late ticks too, even when the stored latest price is newer
+            priceHistoryService.record(windows);
+            return priceWriter.updatePrices(prices);
+        });
+        List<AssetPriceWriter.Price> written = new ArrayList<>(prices.size());
+        for (int i = 0; i < prices.size(); i++) {
+            // Statement.SUCCESS_NO_INFO (-2) is reported for rewritten batches and counts as written
+            if (counts != null && counts[i] != 0) {
+                written.add(prices.get(i));
+            }
+        }
+        priceTable.update(written.stream()
+                .map(price -> new PriceTable.Update(price.assetId(), price.price(), price.pricedAt()))
+                .toList());
+
+        for (AssetPriceWriter.Price price : written) {
+            try {
+                eventPublisher.publishEvent(new AssetPriceChangedEvent(price.assetId(), price.price(), price.pricedAt()));
+            } catch (RuntimeException e) {
+                // Revaluation failures must not stop the remaining assets of this window
+                log.error("Revaluation after price change of asset {} failed", price.assetId(), e);
+            }
+        }
+
+        metricsService.recordTime("prices.flush", System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("Flushed {} coalesced prices ({} written)", prices.size(), written.size());
+        return written.size();
+    }
+
+    /**
+     * Coalesced ticks of one symbol within the current window. Immutable, so merges stay lock-free.
+     */
+    private record PendingPrice(BigDecimal open, LocalDateTime openAt,
+                                BigDecimal high, BigDecimal low,
+                                BigDecimal close, LocalDateTime closeAt,
+                                int ticks) {
+
+        static PendingPrice of(BigDecimal price, LocalDateTime at) {
+            return new PendingPrice(price, at, price, price, price, at, 1);
+        }
+
+        PendingPrice merge(PendingPrice other) {
+            boolean opensEarlier = other.openAt.isBefore(openAt);
+            boolean closesLater = !other.closeAt.isBefore(closeAt);
+            return new PendingPrice(
+                    opensEarlier ? other.open : open, opensEarlier ? other.openAt : openAt,
+                    high.max(other.high), low.min(other.low),
+                    closesLater ? other.close : close, closesLater ? other.closeAt : closeAt,
+                    ticks + other.ticks);
+        }
+    }
+}
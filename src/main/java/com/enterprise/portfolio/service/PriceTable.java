@@ -0,0 +1,257 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.repository.AssetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide table of the latest asset prices, held as scaled longs in primitive arrays.
+ * <p>
+ * Readers take the current {@link Snapshot} through a volatile read and look prices up by asset id in an
+ * open-addressing table: no locks, no boxing, no allocation. Writers (the price pipeline and the periodic
+ * database reload) build a new snapshot copy-on-write and publish it with a single volatile store, so a reader
+ * always sees one consistent version.
+ * <p>
+ * Prices are stored with {@link #SCALE} decimal places, matching {@code assets.current_price}, and timestamps
+ * as UTC epoch milliseconds.
+ */
+@Slf4j
+@Component
+public class PriceTable {
+
+    public static final int SCALE = 8;
+    /** Returned by lookups for assets without a known price. */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private final AssetRepository assetRepository;
+    private volatile Snapshot current = Snapshot.empty();
+
+    public PriceTable(AssetRepository assetRepository) {
+        this.assetRepository = assetRepository;
+    }
+
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Price of an asset as a {@code BigDecimal}, or {@code null} when unknown. Allocates; hot paths should
+     * read scaled longs from {@link #snapshot()} instead.
+     */
+    public BigDecimal getPrice(long assetId) {
+        long scaled = current.price(assetId);
+        return scaled == MISSING ? null : fromScaled(scaled);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Rebuild the table from the database, picking up assets created since the last load.
+     */
+    @Scheduled(fixedDelayString = "${app.prices.table-reload-interval-ms:300000}",
+            initialDelayString = "${app.prices.table-reload-interval-ms:300000}")
+    public synchronized void reload() {
+        List<Object[]> rows = assetRepository.findAllPrices();
+        Map<String, Long> idsBySymbol = new HashMap<>(rows.size() * 2);
+        Snapshot.Builder builder = new Snapshot.Builder(rows.size());
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            idsBySymbol.put((String) row[1], id);
+            if (row[2] != null) {
+                builder.put(id, toScaled((BigDecimal) row[2]), toEpochMillis((LocalDateTime) row[3]));
+            }
+        }
+        current = builder.build(current.version + 1, idsBySymbol);
+        log.debug("Loaded {} asset prices into the price table (version {})", current.size, current.version);
+    }
+
+    /**
+     * Apply prices that were just written by the ingestion pipeline. Older prices never replace newer ones.
+     */
+    public synchronized void update(Collection<Update> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        Snapshot base = current;
+        Snapshot.Builder builder = new Snapshot.Builder(base, updates.size());
+        for (Update update : updates) {
+            long pricedAt = toEpochMillis(update.pricedAt());
+            int index = base.indexOf(update.assetId());
+            if (index >= 0 && base.pricedAt[index] > pricedAt) {
+                continue;
+            }
+            builder.put(update.assetId(), toScaled(update.price()), pricedAt);
+        }
+        current = builder.build(base.version + 1, base.idsBySymbol);
+    }
+
+    public static long toScaled(BigDecimal price) {
+        return price.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromScaled(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+    }
+
+    public record Update(long assetId, BigDecimal price, LocalDateTime pricedAt) {
+    }
+
+    /**
+     * Immutable version of the table. Asset ids are positive, so 0 marks an empty slot.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final long[] keys;
+        private final long[] prices;
+        private final long[] pricedAt;
+        private final int mask;
+        private final int size;
+        private final Map<String, Long> idsBySymbol;
+
+        private Snapshot(long version, long[] keys, long[] prices, long[] pricedAt, int size,
+                         Map<String, Long> idsBySymbol) {
+            this.version = version;
+            this.keys = keys;
+            this.prices = prices;
+            this.pricedAt = pricedAt;
+            this.mask = keys.length - 1;
+            this.size = size;
+            this.idsBySymbol = idsBySymbol;
+        }
+
+        static Snapshot empty() {
+            return new Snapshot(0, new long[16], new long[16], new long[16], 0, Map.of());
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Slot of the asset, or -1 if it has no price. Use with {@link #priceAt(int)} and
+         * {@link #pricedAtMillis(int)} to read both values with a single probe.
+         */
+        public int indexOf(long assetId) {
+            int index = mix(assetId) & mask;
+            while (true) {
+                long key = keys[index];
+                if (key == assetId) {
+                    return index;
+                }
+                if (key == 0) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        public long price(long assetId) {
+            int index = indexOf(assetId);
+            return index >= 0 ? prices[index] : MISSING;
+        }
+
+        public long priceAt(int index) {
+            return prices[index];
+        }
+
+        public long pricedAtMillis(int index) {
+            return pricedAt[index];
+        }
+
+        /**
+         * Asset id of a symbol, or -1 if unknown.
+         */
+        public long assetId(String symbol) {
+            Long id = idsBySymbol.get(symbol);
+            return id != null ? id : -1L;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        /**
+         * Copy-on-write builder; keeps the load factor at or below one half.
+         */
+        static final class Builder {
+            private long[] keys;
+            private long[] prices;
+            private long[] pricedAt;
+            private int size;
+
+            Builder(int expected) {
+                allocate(capacityFor(expected));
+            }
+
+            Builder(Snapshot base, int additional) {
+                int capacity = capacityFor(base.size + additional);
+                if (capacity == base.keys.length) {
+                    keys = base.keys.clone();
+                    prices = base.prices.clone();
+                    pricedAt = base.pricedAt.clone();
+                    size = base.size;
+                } else {
+                    allocate(capacity);
+                    for (int i = 0; i < base.keys.length; i++) {
+                        if (base.keys[i] != 0) {
+                            put(base.keys[i], base.prices[i], base.pricedAt[i]);
+                        }
+                    }
+                }
+            }
+
+            void put(long assetId, long price, long pricedAtMillis) {
+                int mask = keys.length - 1;
+                int index = mix(assetId) & mask;
+                while (keys[index] != 0 && keys[index] != assetId) {
+                    index = (index + 1) & mask;
+                }
+                if (keys[index] == 0) {
+                    keys[index] = assetId;
+                    size++;
+                }
+                prices[index] = price;
+                pricedAt[index] = pricedAtMillis;
+            }
+
+            Snapshot build(long version, Map<String, Long> idsBySymbol) {
+                return new Snapshot(version, keys, prices, pricedAt, size, idsBySymbol);
+            }
+
+            private void allocate(int capacity) {
+                keys = new long[capacity];
+                prices = new long[capacity];
+                pricedAt = new long[capacity];
+                size = 0;
+            }
+
+            private static int capacityFor(int entries) {
+                return Math.max(16, Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+            }
+        }
+    }
+}
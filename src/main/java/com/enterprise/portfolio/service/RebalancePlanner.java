@@ -0,0 +1,234 @@
+package com.enterprise.portfolio.service;
+
+import java.util.Arrays;
+
+/**
+ * Pure rebalancing planner for one compiled model. Everything is held in primitive arrays indexed by asset
+ * slot (the position of an asset in the universe the model was compiled against), so planning a portfolio
+ * allocates only a handful of small arrays and one planner can be shared by any number of threads.
+ * <p>
+ * Holdings carry no cash balance, so buys are funded by the sells of the same plan only and are scaled down
+ * pro rata when the proceeds, net of fees, fall short.
+ */
+final class RebalancePlanner {
+
+    // Guards lot rounding against representation error, e.g. 2.9999999999 lots
+    private static final double LOT_EPSILON = 1e-9;
+
+    private final double[] prices;
+    private final double[] assetWeights;
+    private final int[] typeOf;
+    private final double[] typeWeights;
+    private final double[] lotSizes;
+    private final int[] pinnedSlots;
+    private final double driftBand;
+    private final double feeRate;
+    private final double fixedFee;
+    private final double minOrderValue;
+
+    /**
+     * @param prices       latest price per slot, {@code NaN} when unknown
+     * @param assetWeights target weight per slot, {@code NaN} when the asset has no weight of its own
+     * @param typeOf       asset type ordinal per slot
+     * @param typeWeights  target weight per asset type ordinal
+     * @param lotSizes     lot size per slot
+     */
+    RebalancePlanner(double[] prices, double[] assetWeights, int[] typeOf, double[] typeWeights, double[] lotSizes,
+                     double driftBand, double feeRate, double fixedFee, double minOrderValue) {
+        this.prices = prices;
+        this.assetWeights = assetWeights;
+        this.typeOf = typeOf;
+        this.typeWeights = typeWeights;
+        this.lotSizes = lotSizes;
+        this.driftBand = driftBand;
+        this.feeRate = feeRate;
+        this.fixedFee = fixedFee;
+        this.minOrderValue = minOrderValue;
+
+        int pinned = 0;
+        for (double weight : assetWeights) {
+            if (weight > 0) {
+                pinned++;
+            }
+        }
+        this.pinnedSlots = new int[pinned];
+        for (int slot = 0, i = 0; slot < assetWeights.length; slot++) {
+            if (assetWeights[slot] > 0) {
+                pinnedSlots[i++] = slot;
+            }
+        }
+    }
+
+    /**
+     * @param heldSlots      slots of the portfolio's holdings
+     * @param heldQuantities quantity per holding, parallel to {@code heldSlots}
+     */
+    Plan plan(int[] heldSlots, double[] heldQuantities) {
+        // Candidates: every holding plus every pinned asset the portfolio does not hold yet
+        int held = heldSlots.length;
+        int[] slots = new int[held + pinnedSlots.length];
+        double[] quantities = new double[slots.length];
+        System.arraycopy(heldSlots, 0, slots, 0, held);
+        System.arraycopy(heldQuantities, 0, quantities, 0, held);
+        int count = held;
+        for (int pinned : pinnedSlots) {
+            if (indexOf(heldSlots, pinned) < 0) {
+                slots[count++] = pinned;
+            }
+        }
+
+        double[] values = new double[count];
+        double[] typeValues = new double[typeWeights.length];
+        double total = 0;
+        int unpriced = 0;
+        int[] unpricedSlots = new int[count];
+        for (int i = 0; i < count; i++) {
+            double price = prices[slots[i]];
+            if (Double.isNaN(price)) {
+                if (quantities[i] > 0 || i >= held) {
+                    unpricedSlots[unpriced++] = slots[i];
+                }
+                continue;
+            }
+            values[i] = quantities[i] * price;
+            total += values[i];
+            if (Double.isNaN(assetWeights[slots[i]])) {
+                typeValues[typeOf[slots[i]]] += values[i];
+            }
+        }
+
+        int unplacedTypes = 0;
+        for (int type = 0; type < typeWeights.length; type++) {
+            if (typeWeights[type] > 0 && typeValues[type] <= 0) {
+                unplacedTypes |= 1 << type;
+            }
+        }
+
+        Plan plan = new Plan(count, total, Arrays.copyOf(unpricedSlots, unpriced), unplacedTypes);
+        if (total <= 0) {
+            return plan;
+        }
+
+        // Signed value to trade per candidate; within the drift band counts as on target
+        double[] deltas = new double[count];
+        double band = driftBand * total;
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            if (Double.isNaN(prices[slot])) {
+                continue;
+            }
+            double target;
+            if (!Double.isNaN(assetWeights[slot])) {
+                target = assetWeights[slot] * total;
+            } else if (typeValues[typeOf[slot]] > 0) {
+                // A type's weight is spread over its holdings in proportion to their current value
+                target = typeWeights[typeOf[slot]] * total * values[i] / typeValues[typeOf[slot]];
+            } else {
+                target = 0;
+            }
+            double delta = target - values[i];
+            if (Math.abs(delta) > band || (target == 0 && values[i] > 0 && values[i] >= minOrderValue)) {
+                deltas[i] = delta;
+            }
+        }
+
+        // Sells first: their proceeds are the budget for the buys
+        double budget = 0;
+        for (int i = 0; i < count; i++) {
+            if (deltas[i] >= 0) {
+                continue;
+            }
+            int slot = slots[i];
+            double price = prices[slot];
+            boolean liquidate = values[i] + deltas[i] <= 0;
+            double quantity = liquidate ? quantities[i] : floorToLot(-deltas[i] / price, lotSizes[slot]);
+            double value = quantity * price;
+            if (quantity <= 0 || value < minOrderValue) {
+                continue;
+            }
+            double fee = fee(value);
+            plan.add(slot, -quantity, price, fee, liquidate);
+            budget += value - fee;
+        }
+
+        double buyCost = 0;
+        int buys = 0;
+        for (int i = 0; i < count; i++) {
+            if (deltas[i] > 0) {
+                buyCost += deltas[i] * (1 + feeRate);
+                buys++;
+            }
+        }
+        double scale = 1;
+        if (buys > 0 && buyCost + buys * fixedFee > budget) {
+            scale = Math.max(0, (budget - buys * fixedFee) / buyCost);
+        }
+        for (int i = 0; i < count && scale > 0; i++) {
+            if (deltas[i] <= 0) {
+                continue;
+            }
+            int slot = slots[i];
+            double price = prices[slot];
+            double quantity = floorToLot(deltas[i] * scale / price, lotSizes[slot]);
+            double value = quantity * price;
+            if (quantity <= 0 || value < minOrderValue) {
+                continue;
+            }
+            plan.add(slot, quantity, price, fee(value), false);
+        }
+        return plan;
+    }
+
+    private double fee(double value) {
+        return fixedFee + feeRate * value;
+    }
+
+    private static double floorToLot(double quantity, double lotSize) {
+        return Math.floor(quantity / lotSize + LOT_EPSILON) * lotSize;
+    }
+
+    private static int indexOf(int[] slots, int slot) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == slot) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Orders of one portfolio as parallel arrays; quantities are signed, negative for sells. A liquidation
+     * sells the whole holding, so its exact quantity should be taken from the holding itself.
+     */
+    static final class Plan {
+        final double totalValue;
+        final int[] unpricedSlots;
+        final int unplacedTypes;
+        final int[] slots;
+        final double[] quantities;
+        final double[] prices;
+        final double[] fees;
+        final boolean[] liquidations;
+        int size;
+
+        private Plan(int capacity, double totalValue, int[] unpricedSlots, int unplacedTypes) {
+            this.totalValue = totalValue;
+            this.unpricedSlots = unpricedSlots;
+            this.unplacedTypes = unplacedTypes;
+            this.slots = new int[capacity];
+            this.quantities = new double[capacity];
+            this.prices = new double[capacity];
+            this.fees = new double[capacity];
+            this.liquidations = new boolean[capacity];
+        }
+
+        private void add(int slot, double quantity, double price, double fee, boolean liquidation) {
+            slots[size] = slot;
+            quantities[size] = quantity;
+            prices[size] = price;
+            fees[size] = fee;
+            liquidations[size] = liquidation;
+            size++;
+        }
+    }
+}
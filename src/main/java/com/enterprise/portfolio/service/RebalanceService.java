@@ -0,0 +1,344 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.RebalanceBatchRequestDto;
+import com.enterprise.portfolio.dto.RebalanceModelDto;
+import com.enterprise.portfolio.dto.RebalancePlanDto;
+import com.enterprise.portfolio.exception.BadRequestException;
+import com.enterprise.portfolio.model.Asset;
+import com.enterprise.portfolio.model.Transaction.TransactionType;
+import com.enterprise.portfolio.repository.AssetRepository;
+import com.enterprise.portfolio.repository.HoldingRepository;
+import com.enterprise.portfolio.repository.TransactionBatchWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Rebalancing of portfolios towards a target model, executed as {@code REBALANCE} transactions.
+ * <p>
+ * A model is compiled once into a {@link RebalancePlanner} over the whole asset universe, with prices taken
+ * from one {@link PriceTable} snapshot so every portfolio of a batch is planned against the same prices.
+ * Holdings of a batch are loaded as {@code (portfolioId, assetId, quantity)} tuples in a few chunked queries
+ * and held as compact slot/quantity arrays; planning itself touches no database and runs in parallel on a
+ * bounded {@link ForkJoinPool} ({@code app.rebalance.parallelism}).
+ */
+@Slf4j
+@Service
+public class RebalanceService {
+
+    private static final int QUERY_CHUNK_SIZE = 1000;
+    private static final BigDecimal WEIGHT_TOLERANCE = new BigDecimal("0.000001");
+    private static final BigDecimal WHOLE_UNIT_LOT = BigDecimal.ONE;
+    private static final BigDecimal FRACTIONAL_LOT = new BigDecimal("0.00000001");
+    private static final int QUANTITY_SCALE = 8;
+    private static final String NOTES = "Rebalance";
+
+    private final AssetRepository assetRepository;
+    private final HoldingRepository holdingRepository;
+    private final PriceTable priceTable;
+    private final TransactionBatchWriter batchWriter;
+    private final LedgerService ledgerService;
+    private final int maxBatchSize;
+    private final ForkJoinPool pool;
+
+    public RebalanceService(AssetRepository assetRepository,
+                            HoldingRepository holdingRepository,
+                            PriceTable priceTable,
+                            TransactionBatchWriter batchWriter,
+                            LedgerService ledgerService,
+                            @Value("${app.rebalance.max-batch-size:50000}") int maxBatchSize,
+                            @Value("${app.rebalance.parallelism:4}") int parallelism) {
+        this.assetRepository = assetRepository;
+        this.holdingRepository = holdingRepository;
+        this.priceTable = priceTable;
+        this.batchWriter = batchWriter;
+        this.ledgerService = ledgerService;
+        this.maxBatchSize = maxBatchSize;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Plan the rebalancing of one portfolio and, if {@code execute} is set, record the orders as
+     * {@code REBALANCE} transactions (signed quantity, negative for sells) and rebuild its holdings.
+     */
+    @Transactional
+    public RebalancePlanDto rebalance(Long portfolioId, RebalanceModelDto model, boolean execute, String requestedBy) {
+        Universe universe = loadUniverse();
+        RebalancePlanner planner = compile(model, universe);
+        Holdings holdings = loadHoldings(List.of(portfolioId), universe).get(portfolioId);
+        RebalancePlanDto plan = toDto(portfolioId, holdings, planner.plan(holdings.slots, holdings.quantities),
+                model, universe);
+
+        if (execute && !plan.getOrders().isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            List<TransactionBatchWriter.Row> rows = plan.getOrders().stream()
+                    .map(order -> new TransactionBatchWriter.Row(order.getAssetId(), TransactionType.REBALANCE,
+                            order.getSide() == TransactionType.SELL ? order.getQuantity().negate() : order.getQuantity(),
+                            order.getPrice(), order.getValue(), order.getFee(), now, NOTES))
+                    .toList();
+            batchWriter.insertBatch(portfolioId, rows, requestedBy);
+            ledgerService.invalidateFrom(portfolioId, now);
+            ledgerService.rebuildHoldings(portfolioId);
+            plan.setExecuted(true);
+            log.info("Rebalanced portfolio {} with {} orders", portfolioId, rows.size());
+        }
+        return plan;
+    }
+
+    /**
+     * Dry-run plans for every portfolio of the batch against one model, in request order.
+     */
+    @Transactional(readOnly = true)
+    public List<RebalancePlanDto> planBatch(RebalanceBatchRequestDto request) {
+        List<Long> portfolioIds = List.copyOf(new LinkedHashSet<>(request.getPortfolioIds()));
+        if (portfolioIds.size() > maxBatchSize) {
+            throw new BadRequestException("Batch is limited to " + maxBatchSize + " portfolios");
+        }
+        long start = System.currentTimeMillis();
+        Universe universe = loadUniverse();
+        RebalancePlanner planner = compile(request.getModel(), universe);
+        Map<Long, Holdings> holdings = loadHoldings(portfolioIds, universe);
+        long loaded = System.currentTimeMillis();
+
+        List<RebalancePlanDto> plans = pool.submit(() -> portfolioIds.parallelStream()
+                .map(id -> {
+                    Holdings held = holdings.get(id);
+                    return toDto(id, held, planner.plan(held.slots, held.quantities), request.getModel(), universe);
+                })
+                .toList()).join();
+
+        log.info("Planned rebalancing of {} portfolios in {} ms ({} ms loading holdings)",
+                plans.size(), System.currentTimeMillis() - start, loaded - start);
+        return plans;
+    }
+
+    private Universe loadUniverse() {
+        PriceTable.Snapshot prices = priceTable.snapshot();
+        List<Object[]> rows = assetRepository.findAllSymbolsAndTypes();
+        Universe universe = new Universe(rows.size());
+        for (Object[] row : rows) {
+            universe.add((Long) row[0], (String) row[1], (Asset.AssetType) row[2], prices.price((Long) row[0]));
+        }
+        return universe;
+    }
+
+    private RebalancePlanner compile(RebalanceModelDto model, Universe universe) {
+        int size = universe.size;
+        double[] assetWeights = new double[size];
+        Arrays.fill(assetWeights, Double.NaN);
+        double[] typeWeights = new double[Asset.AssetType.values().length];
+        BigDecimal sum = BigDecimal.ZERO;
+
+        for (Map.Entry<String, BigDecimal> entry : Objects.requireNonNullElse(model.getAssetWeights(), Map.<String, BigDecimal>of()).entrySet()) {
+            int slot = universe.slotOf(entry.getKey());
+            if (slot < 0) {
+                throw new BadRequestException("Unknown asset symbol '" + entry.getKey() + "' in model");
+            }
+            assetWeights[slot] = checkWeight(entry.getKey(), entry.getValue());
+            sum = sum.add(entry.getValue());
+        }
+        for (Map.Entry<Asset.AssetType, BigDecimal> entry : Objects.requireNonNullElse(model.getTypeWeights(), Map.<Asset.AssetType, BigDecimal>of()).entrySet()) {
+            typeWeights[entry.getKey().ordinal()] = checkWeight(entry.getKey().name(), entry.getValue());
+            sum = sum.add(entry.getValue());
+        }
+        if (sum.subtract(BigDecimal.ONE).abs().compareTo(WEIGHT_TOLERANCE) > 0) {
+            throw new BadRequestException("Model weights must add up to 1 (got " + sum.stripTrailingZeros().toPlainString() + ")");
+        }
+
+        double[] lotSizes = new double[size];
+        for (int slot = 0; slot < size; slot++) {
+            Asset.AssetType type = universe.types[slot];
+            lotSizes[slot] = (type == Asset.AssetType.STOCK || type == Asset.AssetType.ETF
+                    ? WHOLE_UNIT_LOT : FRACTIONAL_LOT).doubleValue();
+        }
+        for (Map.Entry<String, BigDecimal> entry : Objects.requireNonNullElse(model.getLotSizes(), Map.<String, BigDecimal>of()).entrySet()) {
+            int slot = universe.slotOf(entry.getKey());
+            if (slot < 0) {
+                throw new BadRequestException("Unknown asset symbol '" + entry.getKey() + "' in lot sizes");
+            }
+            if (entry.getValue() == null || entry.getValue().signum() <= 0) {
+                throw new BadRequestException("Lot size of '" + entry.getKey() + "' must be positive");
+            }
+            lotSizes[slot] = entry.getValue().doubleValue();
+        }
+
+        return new RebalancePlanner(universe.prices, assetWeights, universe.typeOrdinals, typeWeights, lotSizes,
+                model.getDriftBand().doubleValue(), model.getFeeRate().doubleValue(),
+                model.getFixedFee().doubleValue(), model.getMinOrderValue().doubleValue());
+    }
+
+    private static double checkWeight(String name, BigDecimal weight) {
+        if (weight == null || weight.signum() < 0 || weight.compareTo(BigDecimal.ONE) > 0) {
+            throw new BadRequestException("Weight of '" + name + "' must be between 0 and 1");
+        }
+        return weight.doubleValue();
+    }
+
+    /**
+     * Holdings of every requested portfolio; portfolios without holdings get an empty entry.
+     */
+    private Map<Long, Holdings> loadHoldings(List<Long> portfolioIds, Universe universe) {
+        Map<Long, Holdings> holdings = new HashMap<>(portfolioIds.size() * 2);
+        for (Long id : portfolioIds) {
+            holdings.put(id, new Holdings());
+        }
+        for (int from = 0; from < portfolioIds.size(); from += QUERY_CHUNK_SIZE) {
+            List<Long> chunk = portfolioIds.subList(from, Math.min(from + QUERY_CHUNK_SIZE, portfolioIds.size()));
+            for (Object[] row : holdingRepository.findQuantitiesByPortfolioIds(chunk)) {
+                BigDecimal quantity = (BigDecimal) row[2];
+                int slot = universe.slotOf((Long) row[1]);
+                if (slot >= 0 && quantity.signum() > 0) {
+                    holdings.get((Long) row[0]).add(slot, quantity);
+                }
+            }
+        }
+        holdings.values().forEach(Holdings::trim);
+        return holdings;
+    }
+
+    private static RebalancePlanDto toDto(Long portfolioId, Holdings holdings, RebalancePlanner.Plan plan,
+                                          RebalanceModelDto model, Universe universe) {
+        List<RebalancePlanDto.Order> orders = new ArrayList<>(plan.size);
+        BigDecimal fees = BigDecimal.ZERO;
+        for (int i = 0; i < plan.size; i++) {
+            int slot = plan.slots[i];
+            boolean sell = plan.quantities[i] < 0;
+            BigDecimal quantity = plan.liquidations[i]
+                    ? holdings.exactQuantity(slot)
+                    : BigDecimal.valueOf(Math.abs(plan.quantities[i])).setScale(QUANTITY_SCALE, RoundingMode.DOWN);
+            BigDecimal price = PriceTable.fromScaled(universe.scaledPrices[slot]);
+            BigDecimal value = quantity.multiply(price).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal fee = model.getFixedFee().add(model.getFeeRate().multiply(value)).setScale(2, RoundingMode.HALF_UP);
+            fees = fees.add(fee);
+            orders.add(new RebalancePlanDto.Order(universe.ids[slot], universe.symbols[slot],
+                    sell ? TransactionType.SELL : TransactionType.BUY, quantity, price, value, fee));
+        }
+
+        List<String> unpriced = new ArrayList<>(plan.unpricedSlots.length);
+        for (int slot : plan.unpricedSlots) {
+            unpriced.add(universe.symbols[slot]);
+        }
+        List<String> unplacedTypes = new ArrayList<>();
+        for (Asset.AssetType type : Asset.AssetType.values()) {
+            if ((plan.unplacedTypes & (1 << type.ordinal())) != 0) {
+                unplacedTypes.add(type.name());
+            }
+        }
+
+        return RebalancePlanDto.builder()
+                .portfolioId(portfolioId)
+                .totalValue(BigDecimal.valueOf(plan.totalValue).setScale(2, RoundingMode.HALF_UP))
+                .estimatedFees(fees)
+                .orders(orders)
+                .unpricedSymbols(unpriced)
+                .unplacedTypes(unplacedTypes)
+                .build();
+    }
+
+    /**
+     * Every known asset, by slot. Slots are dense indexes into the planner's arrays.
+     */
+    private static final class Universe {
+        private final Map<Long, Integer> slotsById;
+        private final Map<String, Integer> slotsBySymbol;
+        private final long[] ids;
+        private final String[] symbols;
+        private final Asset.AssetType[] types;
+        private final int[] typeOrdinals;
+        private final long[] scaledPrices;
+        private final double[] prices;
+        private int size;
+
+        Universe(int capacity) {
+            slotsById = new HashMap<>(capacity * 2);
+            slotsBySymbol = new HashMap<>(capacity * 2);
+            ids = new long[capacity];
+            symbols = new String[capacity];
+            types = new Asset.AssetType[capacity];
+            typeOrdinals = new int[capacity];
+            scaledPrices = new long[capacity];
+            prices = new double[capacity];
+        }
+
+        void add(long id, String symbol, Asset.AssetType type, long scaledPrice) {
+            slotsById.put(id, size);
+            slotsBySymbol.put(symbol.toUpperCase(Locale.ROOT), size);
+            ids[size] = id;
+            symbols[size] = symbol;
+            types[size] = type;
+            typeOrdinals[size] = type.ordinal();
+            scaledPrices[size] = scaledPrice;
+            prices[size] = scaledPrice == PriceTable.MISSING
+                    ? Double.NaN
+                    : (double) scaledPrice / Math.pow(10, PriceTable.SCALE);
+            size++;
+        }
+
+        int slotOf(long assetId) {
+            Integer slot = slotsById.get(assetId);
+            return slot != null ? slot : -1;
+        }
+
+        int slotOf(String symbol) {
+            Integer slot = symbol != null ? slotsBySymbol.get(symbol.trim().toUpperCase(Locale.ROOT)) : null;
+            return slot != null ? slot : -1;
+        }
+    }
+
+    /**
+     * One portfolio's holdings as parallel slot/quantity arrays. Exact quantities are kept for liquidations,
+     * which must sell the holding to the last unit.
+     */
+    private static final class Holdings {
+        private int[] slots = new int[0];
+        private double[] quantities = new double[0];
+        private BigDecimal[] exact = new BigDecimal[0];
+        private int size;
+
+        void add(int slot, BigDecimal quantity) {
+            if (size == slots.length) {
+                int capacity = Math.max(8, size * 2);
+                slots = Arrays.copyOf(slots, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                exact = Arrays.copyOf(exact, capacity);
+            }
+            slots[size] = slot;
+            quantities[size] = quantity.doubleValue();
+            exact[size] = quantity;
+            size++;
+        }
+
+        /**
+         * Drop spare capacity so the arrays can be handed to the planner as they are.
+         */
+        void trim() {
+            if (size < slots.length) {
+                slots = Arrays.copyOf(slots, size);
+                quantities = Arrays.copyOf(quantities, size);
+                exact = Arrays.copyOf(exact, size);
+            }
+        }
+
+        BigDecimal exactQuantity(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    return exact[i];
+                }
+            }
+            return BigDecimal.ZERO;
+        }
+    }
+}
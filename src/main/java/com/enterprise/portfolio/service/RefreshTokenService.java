@@ -0,0 +1,177 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.config.JwtConfig;
+import com.enterprise.portfolio.repository.RefreshTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Refresh tokens: random 256-bit values handed to the client, stored only as their SHA-256 hash.
+ * <p>
+ * Issuing on login is one upsert (one token per user) and rotation is one conditional {@code UPDATE}, so
+ * concurrent rotations of the same token cannot both succeed. Mobile clients often retry a refresh in
+ * parallel, though; rotations are therefore single-flighted in process and the result is remembered for a
+ * short grace window ({@code app.jwt.refresh-grace-period}), during which further presentations of the old
+ * token receive the same new token instead of failing.
+ * <p>
+ * Expired rows are swept on a schedule in small chunks.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int PURGE_CHUNK_SIZE = 1000;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtConfig jwtConfig;
+    private final TransactionTemplate rotationTransaction;
+    private final Cache<String, CompletableFuture<Rotation>> recentRotations;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtConfig jwtConfig,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.jwt.refresh-grace-period:10s}") Duration gracePeriod) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtConfig = jwtConfig;
+        // Commit before waiters are handed the new token
+        this.rotationTransaction = new TransactionTemplate(transactionManager);
+        this.rotationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recentRotations = Caffeine.newBuilder().expireAfterWrite(gracePeriod).build();
+    }
+
+    /**
+     * Issue a new token for the user, replacing any previous one.
+     *
+     * @return the token to hand to the client
+     */
+    @Transactional
+    public String issue(Long userId) {
+        String token = newToken();
+        refreshTokenRepository.upsertForUser(userId, hash(token), expiry());
+        return token;
+    }
+
+    /**
+     * Exchange a live token for a new one.
+     *
+     * @throws CredentialsExpiredException if the token is unknown, expired or already rotated outside the
+     *                                     grace window
+     */
+    public Rotation rotate(String token) {
+        String oldHash = hash(token);
+        CompletableFuture<Rotation> mine = new CompletableFuture<>();
+        CompletableFuture<Rotation> existing = recentRotations.asMap().putIfAbsent(oldHash, mine);
+        if (existing != null) {
+            log.debug("Refresh token presented again within the grace window; returning the same rotation");
+            return await(existing);
+        }
+
+        try {
+            Rotation rotation = rotationTransaction.execute(status -> {
+                String newToken = newToken();
+                String newHash = hash(newToken);
+                if (refreshTokenRepository.rotate(oldHash, newHash, expiry(), Instant.now()) == 0) {
+                    throw new CredentialsExpiredException("Refresh token is invalid or expired. Please sign in again");
+                }
+                Long userId = refreshTokenRepository.findUserIdByTokenHash(newHash)
+                        .orElseThrow(() -> new IllegalStateException("Rotated refresh token disappeared"));
+                return new Rotation(userId, newToken);
+            });
+            mine.complete(rotation);
+            return rotation;
+        } catch (RuntimeException e) {
+            // Failures are not remembered: a later retry gets its own answer
+            recentRotations.invalidate(oldHash);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.deleteByTokenHash(hash(token));
+        // A retry of the token this one replaced must not hand it out again
+        recentRotations.asMap().values().removeIf(rotation -> rotation.isDone()
+                && !rotation.isCompletedExceptionally()
+                && rotation.join().refreshToken().equals(token));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}",
+            initialDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now();
+        long total = 0;
+        int deleted;
+        do {
+            // Each chunk commits on its own
+            Integer chunk = rotationTransaction.execute(status ->
+                    refreshTokenRepository.deleteExpiredBefore(cutoff, PURGE_CHUNK_SIZE));
+            deleted = chunk != null ? chunk : 0;
+            total += deleted;
+        } while (deleted >= PURGE_CHUNK_SIZE);
+        if (total > 0) {
+            log.info("Purged {} expired refresh tokens", total);
+        }
+    }
+
+    private static Rotation await(CompletableFuture<Rotation> rotation) {
+        try {
+            return rotation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Instant expiry() {
+        return Instant.now().plusMillis(jwtConfig.getRefreshExpirationMs());
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Lowercase hex SHA-256 of the UTF-8 token, identical to MySQL's {@code SHA2(token, 256)}.
+     */
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @param refreshToken the new token to hand to the client
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.PriceTickDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Local stand-in for a live feed: replays {@code symbol,price[,timestamp]} lines from a file at a fixed rate.
+ * Enabled by setting {@code app.prices.replay.file}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.prices.replay", name = "file")
+public class ReplayPriceFeed implements PriceFeed {
+
+    private final Path file;
+    private final int ticksPerSecond;
+    private final boolean loop;
+    private volatile Thread worker;
+
+    public ReplayPriceFeed(@Value("${app.prices.replay.file}") String file,
+                           @Value("${app.prices.replay.ticks-per-second:1000}") int ticksPerSecond,
+                           @Value("${app.prices.replay.loop:false}") boolean loop) {
+        this.file = Path.of(file);
+        this.ticksPerSecond = Math.max(1, ticksPerSecond);
+        this.loop = loop;
+    }
+
+    @Override
+    public String getName() {
+        return "replay:" + file.getFileName();
+    }
+
+    @Override
+    public void start(Consumer<PriceTickDto> sink) {
+        Thread thread = new Thread(() -> run(sink), "price-feed-replay");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run(Consumer<PriceTickDto> sink) {
+        long pauseNanos = 1_000_000_000L / ticksPerSecond;
+        try {
+            do {
+                long replayed = 0;
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while (worker != null && (line = reader.readLine()) != null) {
+                        PriceTickDto tick = parse(line);
+                        if (tick == null) {
+                            continue;
+                        }
+                        sink.accept(tick);
+                        replayed++;
+                        Thread.sleep(pauseNanos / 1_000_000, (int) (pauseNanos % 1_000_000));
+                    }
+                }
+                log.info("Replayed {} price ticks from {}", replayed, file);
+            } while (loop && worker != null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Price replay from {} failed", file, e);
+        }
+    }
+
+    private static PriceTickDto parse(String line) {
+        if (line.isBlank() || line.startsWith("#") || line.startsWith("symbol")) {
+            return null;
+        }
+        String[] parts = line.split(",");
+        try {
+            return PriceTickDto.builder()
+                    .symbol(parts[0].trim())
+                    .price(new BigDecimal(parts[1].trim()))
+                    .timestamp(parts.length > 2 ? LocalDateTime.parse(parts[2].trim()) : LocalDateTime.now())
+                    .build();
+        } catch (RuntimeException e) {
+            log.debug("Skipping malformed replay line: {}", line);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.repository.TransactionLedgerReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes a portfolio's full ledger as CSV or NDJSON while it is read from the database.
+ * <p>
+ * Column and field names match what {@link TransactionImportService} accepts, so an export can be imported
+ * into another portfolio as is.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,date,type,symbol,quantity,price,amount,fee,notes";
+
+    private final TransactionLedgerReader ledgerReader;
+    private final ObjectMapper objectMapper;
+
+    public long exportTransactions(Long portfolioId, TransactionImportService.Format format, OutputStream out)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        AtomicLong rows = new AtomicLong();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            if (format == TransactionImportService.Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                ledgerReader.forEach(portfolioId, row -> {
+                    writeCsv(writer, row);
+                    rows.incrementAndGet();
+                });
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+                ledgerReader.forEach(portfolioId, row -> {
+                    writeJson(generator, row);
+                    rows.incrementAndGet();
+                });
+                generator.flush();
+                if (rows.get() > 0) {
+                    writer.write('\n');
+                }
+            }
+        } catch (UncheckedIOException e) {
+            // Typically the client went away mid-download; the cursor has been closed by JdbcTemplate
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} transactions of portfolio {} as {} ({} ms)",
+                rows.get(), portfolioId, format, System.currentTimeMillis() - start);
+        return rows.get();
+    }
+
+    private static void writeCsv(Writer writer, TransactionLedgerReader.Row row) {
+        try {
+            writer.write(Long.toString(row.id()));
+            writer.write(',');
+            writer.write(row.transactionDate().toString());
+            writer.write(',');
+            writer.write(row.type().name());
+            writer.write(',');
+            writer.write(csvField(row.symbol()));
+            writer.write(',');
+            writer.write(plain(row.quantity()));
+            writer.write(',');
+            writer.write(plain(row.pricePerUnit()));
+            writer.write(',');
+            writer.write(plain(row.totalAmount()));
+            writer.write(',');
+            writer.write(plain(row.transactionFee()));
+            writer.write(',');
+            writer.write(csvField(row.notes()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeJson(JsonGenerator generator, TransactionLedgerReader.Row row) {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.id());
+            generator.writeStringField("date", row.transactionDate().toString());
+            generator.writeStringField("type", row.type().name());
+            generator.writeStringField("symbol", row.symbol());
+            writeDecimal(generator, "quantity", row.quantity());
+            writeDecimal(generator, "price", row.pricePerUnit());
+            writeDecimal(generator, "amount", row.totalAmount());
+            writeDecimal(generator, "fee", row.transactionFee());
+            generator.writeStringField("notes", row.notes());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeDecimal(JsonGenerator generator, String field, BigDecimal value) throws IOException {
+        // Decimals go out as strings so no client parses them into doubles
+        if (value != null) {
+            generator.writeStringField(field, value.toPlainString());
+        } else {
+            generator.writeNullField(field);
+        }
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
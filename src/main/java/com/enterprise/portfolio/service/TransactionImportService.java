@@ -0,0 +1,401 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.TransactionImportResultDto;
+import com.enterprise.portfolio.dto.TransactionImportRow;
+import com.enterprise.portfolio.exception.BadRequestException;
+import com.enterprise.portfolio.model.Asset;
+import com.enterprise.portfolio.model.Transaction.TransactionType;
+import com.enterprise.portfolio.repository.AssetRepository;
+import com.enterprise.portfolio.repository.TransactionBatchWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Streams broker exports (CSV or NDJSON) into the transactions table.
+ * <p>
+ * The request body is parsed record by record (a quoted CSV field may span lines), each row is validated,
+ * and valid rows are written through {@link TransactionBatchWriter} in chunks of
+ * {@code app.import.chunk-size}, each chunk in its own database transaction. Invalid rows are reported and skipped. Once the import completes, ledger checkpoints from the
+ * earliest imported date onwards are invalidated and holdings are rebuilt. If the import fails part way,
+ * chunks already committed stay committed and holdings are still rebuilt before the failure is rethrown;
+ * the uncommitted tail is discarded.
+ */
+@Slf4j
+@Service
+public class TransactionImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final List<String> DEFAULT_CSV_COLUMNS =
+            List.of("date", "type", "symbol", "quantity", "price", "amount", "fee", "notes");
+    private static final Set<String> DATE_COLUMNS = Set.of("date", "transaction_date");
+
+    private final TransactionBatchWriter batchWriter;
+    private final AssetRepository assetRepository;
+    private final LedgerService ledgerService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public TransactionImportService(TransactionBatchWriter batchWriter,
+                                    AssetRepository assetRepository,
+                                    LedgerService ledgerService,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${app.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.batchWriter = batchWriter;
+        this.assetRepository = assetRepository;
+        this.ledgerService = ledgerService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public TransactionImportResultDto importTransactions(Long portfolioId, Format format, InputStream body, String importedBy) {
+        long start = System.currentTimeMillis();
+        TransactionImportResultDto result = TransactionImportResultDto.builder().portfolioId(portfolioId).build();
+        Map<String, Long> assetIds = new HashMap<>();
+        List<TransactionBatchWriter.Row> chunk = new ArrayList<>(chunkSize);
+        LocalDateTime earliest = null;
+        RuntimeException failure = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<String> columns = DEFAULT_CSV_COLUMNS;
+            CsvReader csv = format == Format.CSV ? new CsvReader(reader) : null;
+            long lineNumber = 0;
+            while (true) {
+                List<String> fields = null;
+                String line = null;
+                if (csv != null) {
+                    fields = csv.next();
+                    if (fields == null) {
+                        break;
+                    }
+                    lineNumber = csv.recordLine();
+                    if (fields.size() == 1 && fields.get(0).isBlank()) {
+                        continue;
+                    }
+                    if (lineNumber == 1) {
+                        List<String> header = fields.stream().map(c -> c.trim().toLowerCase(Locale.ROOT)).toList();
+                        if (isCsvHeader(header)) {
+                            columns = header;
+                            continue;
+                        }
+                    }
+                } else {
+                    line = reader.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                }
+
+                result.setRowsRead(result.getRowsRead() + 1);
+                TransactionBatchWriter.Row row;
+                try {
+                    if (csv != null && csv.unterminated()) {
+                        throw new BadRequestException("unterminated quoted field");
+                    }
+                    TransactionImportRow raw = fields != null
+                            ? toRow(columns, fields)
+                            : objectMapper.readValue(line, TransactionImportRow.class);
+                    row = validate(raw, assetIds);
+                } catch (BadRequestException | IOException e) {
+                    reject(result, lineNumber, e.getMessage());
+                    continue;
+                }
+
+                if (earliest == null || row.transactionDate().isBefore(earliest)) {
+                    earliest = row.transactionDate();
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    flush(portfolioId, chunk, result, importedBy);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flush(portfolioId, chunk, result, importedBy);
+            }
+        } catch (IOException e) {
+            failure = new BadRequestException("Could not read import stream: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        if (failure != null) {
+            // Earlier chunks are committed whatever failed afterwards, so holdings must still reflect them
+            if (earliest != null && result.getChunksCommitted() > 0) {
+                try {
+                    reconcileLedger(portfolioId, earliest);
+                } catch (RuntimeException e) {
+                    failure.addSuppressed(e);
+                }
+            }
+            log.warn("Import into portfolio {} failed after {} committed chunks ({} rows)",
+                    portfolioId, result.getChunksCommitted(), result.getRowsImported());
+            throw failure;
+        }
+        if (earliest != null) {
+            reconcileLedger(portfolioId, earliest);
+        }
+
+        result.setDurationMs(System.currentTimeMillis() - start);
+        log.info("Imported {}/{} transactions into portfolio {} in {} chunks ({} ms)",
+                result.getRowsImported(), result.getRowsRead(), portfolioId,
+                result.getChunksCommitted(), result.getDurationMs());
+        return result;
+    }
+
+    private void reconcileLedger(Long portfolioId, LocalDateTime earliest) {
+        ledgerService.invalidateFrom(portfolioId, earliest);
+        ledgerService.rebuildHoldings(portfolioId);
+    }
+
+    private void flush(Long portfolioId, List<TransactionBatchWriter.Row> chunk,
+                       TransactionImportResultDto result, String importedBy) {
+        Integer written = transactionTemplate.execute(status -> batchWriter.insertBatch(portfolioId, chunk, importedBy));
+        result.setRowsImported(result.getRowsImported() + (written != null ? written : 0));
+        result.setChunksCommitted(result.getChunksCommitted() + 1);
+        chunk.clear();
+        log.debug("Import into portfolio {}: committed chunk {} ({} rows so far)",
+                portfolioId, result.getChunksCommitted(), result.getRowsImported());
+    }
+
+    private TransactionBatchWriter.Row validate(TransactionImportRow raw, Map<String, Long> assetIds) {
+        TransactionType type = parseType(raw.getType());
+        LocalDateTime date = parseDate(raw.getDate());
+        BigDecimal quantity = parseDecimal("quantity", raw.getQuantity());
+        BigDecimal price = parseDecimal("price", raw.getPrice());
+        BigDecimal amount = parseDecimal("amount", raw.getAmount());
+        BigDecimal fee = parseDecimal("fee", raw.getFee());
+
+        boolean assetRequired = type == TransactionType.BUY || type == TransactionType.SELL
+                || type == TransactionType.REBALANCE || type == TransactionType.DIVIDEND;
+        Long assetId = null;
+        if (raw.getSymbol() != null && !raw.getSymbol().isBlank()) {
+            String symbol = raw.getSymbol().trim().toUpperCase(Locale.ROOT);
+            // -1 caches unknown symbols so they are only looked up once per import
+            assetId = assetIds.computeIfAbsent(symbol,
+                    s -> assetRepository.findBySymbol(s).map(Asset::getId).orElse(-1L));
+            if (assetId < 0) {
+                throw new BadRequestException("unknown asset symbol '" + symbol + "'");
+            }
+        } else if (assetRequired) {
+            throw new BadRequestException("symbol is required for " + type + " transactions");
+        }
+
+        if (quantity == null) {
+            quantity = BigDecimal.ZERO;
+        }
+        if (type == TransactionType.REBALANCE ? quantity.signum() == 0
+                : (type == TransactionType.BUY || type == TransactionType.SELL) && quantity.signum() <= 0) {
+            throw new BadRequestException("quantity must be " + (type == TransactionType.REBALANCE ? "non-zero" : "positive"));
+        }
+        if (amount == null) {
+            if (price == null) {
+                throw new BadRequestException("either amount or price is required");
+            }
+            amount = quantity.abs().multiply(price);
+        }
+        if (fee != null && fee.signum() < 0) {
+            throw new BadRequestException("fee must not be negative");
+        }
+
+        return new TransactionBatchWriter.Row(assetId, type, quantity, price,
+                amount.setScale(2, RoundingMode.HALF_UP), fee, date, raw.getNotes());
+    }
+
+    private void reject(TransactionImportResultDto result, long lineNumber, String message) {
+        result.setRowsRejected(result.getRowsRejected() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add("line " + lineNumber + ": " + message);
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static TransactionType parseType(String value) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException("type is required");
+        }
+        try {
+            return TransactionType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("unknown transaction type '" + value + "'");
+        }
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException("date is required");
+        }
+        String trimmed = value.trim();
+        try {
+            return trimmed.length() == 10
+                    ? LocalDate.parse(trimmed).atStartOfDay()
+                    : LocalDateTime.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("invalid date '" + value + "'");
+        }
+    }
+
+    private static BigDecimal parseDecimal(String field, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("invalid " + field + " '" + value + "'");
+        }
+    }
+
+    /**
+     * A first line naming the type and a date column, which a data row (an enum value and a date) cannot.
+     */
+    private static boolean isCsvHeader(List<String> columns) {
+        return columns.contains("type") && columns.stream().anyMatch(DATE_COLUMNS::contains);
+    }
+
+    private static TransactionImportRow toRow(List<String> columns, List<String> values) {
+        TransactionImportRow row = new TransactionImportRow();
+        for (int i = 0; i < columns.size() && i < values.size(); i++) {
+            String value = values.get(i);
+            switch (columns.get(i)) {
+                case "date", "transaction_date" -> row.setDate(value);
+                case "type" -> row.setType(value);
+                case "symbol" -> row.setSymbol(value);
+                case "quantity" -> row.setQuantity(value);
+                case "price", "price_per_unit" -> row.setPrice(value);
+                case "amount", "total_amount" -> row.setAmount(value);
+                case "fee", "transaction_fee" -> row.setFee(value);
+                case "notes" -> row.setNotes(value);
+                default -> {
+                    // Unknown broker columns are ignored
+                }
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Reads RFC 4180 records: fields may be double-quoted, with {@code ""} for a quote, and a quoted field may
+     * span lines, as the notes written by {@link TransactionExportService} do. Line breaks inside quotes are
+     * kept as they were; outside quotes {@code \n}, {@code \r\n} and {@code \r} end the record.
+     */
+    static final class CsvReader {
+        private final Reader in;
+        private long line = 1;
+        private long recordLine;
+        private boolean unterminated;
+        private int pending = -2;
+
+        CsvReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * @return the fields of the next record, or null at the end of the input
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            recordLine = line;
+            unterminated = false;
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (; c >= 0; c = read()) {
+                if (quoted) {
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            current.append('"');
+                            continue;
+                        }
+                        quoted = false;
+                        unread(following);
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        current.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            unread(following);
+                        }
+                    }
+                    line++;
+                    break;
+                } else {
+                    current.append((char) c);
+                }
+            }
+            unterminated = quoted;
+            values.add(current.toString());
+            return values;
+        }
+
+        /**
+         * Line the last record returned by {@link #next()} starts on, counting from 1.
+         */
+        long recordLine() {
+            return recordLine;
+        }
+
+        /**
+         * Whether the last record ended inside a quoted field, i.e. the input ended before the closing quote.
+         */
+        boolean unterminated() {
+            return unterminated;
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        private void unread(int c) {
+            pending = c;
+        }
+    }
+}
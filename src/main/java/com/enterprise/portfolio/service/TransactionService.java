@@ -0,0 +1,93 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.CursorPageDto;
+import com.enterprise.portfolio.dto.TransactionDto;
+import com.enterprise.portfolio.exception.BadRequestException;
+import com.enterprise.portfolio.model.Transaction;
+import com.enterprise.portfolio.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Transaction history with keyset pagination on {@code (transaction_date, id)}, newest first.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    // Bounds of MySQL DATETIME, used when the caller gives no cursor or date range
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * One page of history of a portfolio of the given user. Rows of portfolios the user does not own are never
+     * returned, so an empty page is all a non-owner gets.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<TransactionDto> getTransactionHistory(Long portfolioId,
+                                                               Long userId,
+                                                               Transaction.TransactionType type,
+                                                               Long assetId,
+                                                               LocalDateTime from,
+                                                               LocalDateTime to,
+                                                               String cursor,
+                                                               int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime cursorDate = MAX_DATE;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorDate = LocalDateTime.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+
+        // One extra row tells whether another page exists
+        List<TransactionDto> rows = transactionRepository.findHistoryPage(portfolioId, userId, cursorDate, cursorId,
+                from != null ? from : MIN_DATE, to != null ? to : MAX_DATE, type, assetId,
+                PageRequest.of(0, limit + 1));
+
+        boolean hasMore = rows.size() > limit;
+        List<TransactionDto> content = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionDto last = content.get(content.size() - 1);
+            nextCursor = encodeCursor(last.getTransactionDate(), last.getId());
+        }
+        return CursorPageDto.<TransactionDto>builder()
+                .content(content)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    static String encodeCursor(LocalDateTime date, Long id) {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.enterprise.portfolio.service;
 
+import com.enterprise.portfolio.dto.CursorPageDto;
 import com.enterprise.portfolio.dto.UserDto;
 import com.enterprise.portfolio.model.User;
 import org.springframework.data.domain.Page;
@@ -19,7 +20,7 @@ public interface UserService extends BaseService<UserDto, User, Long> {
     void resetPassword(String token, String newPassword);
     void verifyEmail(String token);
     UserDto getCurrentUser();
-    Page<UserDto> searchUsers(String query, Pageable pageable);
+    CursorPageDto<UserDto> searchUsers(String query, Long afterId, int size);
     UserDto addRoleToUser(Long userId, Long roleId);
     UserDto removeRoleFromUser(Long userId, Long roleId);
     List<String> getUserRoles(Long userId);
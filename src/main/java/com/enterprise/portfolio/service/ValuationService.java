@@ -0,0 +1,140 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.PortfolioValuationDto;
+import com.enterprise.portfolio.event.AssetPriceChangedEvent;
+import com.enterprise.portfolio.event.PortfolioRevaluedEvent;
+import com.enterprise.portfolio.exception.ResourceNotFoundException;
+import com.enterprise.portfolio.model.Holding;
+import com.enterprise.portfolio.repository.HoldingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@link Holding#getCurrentValue()} and profit/loss columns up to date.
+ * <p>
+ * A price change only touches the holdings that reference the changed asset (looked up through the
+ * holdings.asset_id reverse index), and portfolio totals are pushed as deltas instead of being re-summed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ValuationService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final HoldingRepository holdingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener
+    @Transactional
+    public void onAssetPriceChanged(AssetPriceChangedEvent event) {
+        revalueAsset(event.getAssetId(), event.getPrice());
+    }
+
+    /**
+     * Recompute every holding of the given asset at the new price and publish per-portfolio deltas.
+     *
+     * @return number of holdings revalued
+     */
+    @Transactional
+    public int revalueAsset(Long assetId, BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        List<Holding> holdings = holdingRepository.findByAssetId(assetId);
+        if (holdings.isEmpty()) {
+            return 0;
+        }
+
+        // portfolioId -> [valueDelta, profitLossDelta]
+        Map<Long, BigDecimal[]> deltas = new HashMap<>();
+        for (Holding holding : holdings) {
+            BigDecimal oldValue = zeroIfNull(holding.getCurrentValue());
+            BigDecimal oldProfitLoss = zeroIfNull(holding.getProfitLoss());
+
+            revalue(holding, price);
+
+            BigDecimal[] delta = deltas.computeIfAbsent(holding.getPortfolio().getId(),
+                    id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            delta[0] = delta[0].add(holding.getCurrentValue().subtract(oldValue));
+            delta[1] = delta[1].add(holding.getProfitLoss().subtract(oldProfitLoss));
+        }
+        holdingRepository.saveAll(holdings);
+
+        deltas.forEach((portfolioId, delta) -> {
+            if (delta[0].signum() != 0 || delta[1].signum() != 0) {
+                eventPublisher.publishEvent(new PortfolioRevaluedEvent(portfolioId, delta[0], delta[1]));
+            }
+        });
+
+        log.debug("Revalued {} holdings across {} portfolios for asset {}", holdings.size(), deltas.size(), assetId);
+        return holdings.size();
+    }
+
+    /**
+     * Recompute the derived valuation columns of a single holding in place.
+     */
+    public void revalue(Holding holding, BigDecimal price) {
+        BigDecimal quantity = zeroIfNull(holding.getQuantity());
+        BigDecimal totalInvestment = zeroIfNull(holding.getTotalInvestment());
+
+        BigDecimal currentValue = quantity.multiply(price).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal profitLoss = currentValue.subtract(totalInvestment);
+
+        holding.setCurrentValue(currentValue);
+        holding.setProfitLoss(profitLoss);
+        holding.setProfitLossPercentage(percentage(profitLoss, totalInvestment));
+    }
+
+    /**
+     * Valuation of a portfolio of the given user; ownership is checked by the aggregate query itself.
+     */
+    @Transactional(readOnly = true)
+    public PortfolioValuationDto getPortfolioValuation(Long portfolioId, Long userId) {
+        List<Object[]> rows = holdingRepository.sumByPortfolioIdAndUserId(portfolioId, userId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Portfolio", "id", portfolioId.toString());
+        }
+        Object[] row = rows.get(0);
+        BigDecimal totalValue = toBigDecimal(row[0]);
+        BigDecimal totalInvestment = toBigDecimal(row[1]);
+        BigDecimal profitLoss = toBigDecimal(row[2]);
+
+        return PortfolioValuationDto.builder()
+                .portfolioId(portfolioId)
+                .totalValue(totalValue)
+                .totalInvestment(totalInvestment)
+                .profitLoss(profitLoss)
+                .profitLossPercentage(percentage(profitLoss, totalInvestment))
+                .holdingCount(((Number) row[3]).longValue())
+                .build();
+    }
+
+    private static Double percentage(BigDecimal profitLoss, BigDecimal totalInvestment) {
+        if (totalInvestment.signum() == 0) {
+            return null;
+        }
+        return profitLoss.multiply(HUNDRED).divide(totalInvestment, 2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
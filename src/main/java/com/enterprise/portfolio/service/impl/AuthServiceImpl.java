@@ -4,16 +4,15 @@ import com.enterprise.portfolio.config.JwtConfig;
 import com.enterprise.portfolio.dto.AuthRequest;
 import com.enterprise.portfolio.dto.AuthResponse;
 import com.enterprise.portfolio.dto.UserDto;
-import com.enterprise.portfolio.model.RefreshToken;
 import com.enterprise.portfolio.model.Role;
 import com.enterprise.portfolio.model.User;
-import com.enterprise.portfolio.repository.RefreshTokenRepository;
 import com.enterprise.portfolio.repository.UserRepository;
+import com.enterprise.portfolio.security.JwtClaimNames;
+import com.enterprise.portfolio.security.JwtTokenVerifier;
+import com.enterprise.portfolio.security.UserPrincipal;
 import com.enterprise.portfolio.service.AuthService;
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import com.enterprise.portfolio.service.RefreshTokenService;
+import io.jsonwebtoken.Jwts;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,9 +22,9 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.Key;
 import java.time.Instant;
 import java.util.*;
 
@@ -39,22 +38,31 @@ public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
     private final JwtConfig jwtConfig;
-    private final Key key;
+    private final JwtTokenVerifier tokenVerifier;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public AuthServiceImpl(AuthenticationManager authenticationManager,
                           UserRepository userRepository,
-                          RefreshTokenRepository refreshTokenRepository,
-                          JwtConfig jwtConfig) {
+                          RefreshTokenService refreshTokenService,
+                          JwtConfig jwtConfig,
+                          JwtTokenVerifier tokenVerifier,
+                          PlatformTransactionManager transactionManager) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
-        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenService = refreshTokenService;
         this.jwtConfig = jwtConfig;
-        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtConfig.getSecret()));
+        this.tokenVerifier = tokenVerifier;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * Not transactional: password hashing runs first, outside any transaction, so a login waiting for the
+     * hashing pool holds no connection. The user is then loaded and the refresh token issued in one short
+     * transaction.
+     */
     @Override
     public AuthResponse authenticateUser(AuthRequest authRequest) {
         Authentication authentication = authenticationManager.authenticate(
@@ -66,12 +74,17 @@ public class AuthServiceImpl implements AuthService {
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + authentication.getName()));
+        Long userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        Login login = transactionTemplate.execute(status -> {
+            User user = userRepository.findAllWithRolesByIdIn(List.of(userId)).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+            return new Login(user, createRefreshToken(user.getId()));
+        });
+        User user = login.user();
         
         // Generate tokens
         String accessToken = generateJwtToken(user);
-        RefreshToken refreshToken = createRefreshToken(user.getId());
         
         // Get user roles
         Set<String> roles = user.getRoles() != null ? 
@@ -82,7 +95,7 @@ public class AuthServiceImpl implements AuthService {
         
         return AuthResponse.builder()
                 .accessToken(accessToken)
-                .refreshToken(refreshToken.getToken())
+                .refreshToken(login.refreshToken())
                 .username(user.getUsername())
                 .email(user.getEmail())
                 .roles(roles)
@@ -90,23 +103,18 @@ public class AuthServiceImpl implements AuthService {
                 .build();
     }
 
+    /**
+     * Not transactional: the rotation commits on its own before the response is built, so parallel retries
+     * of the same token that share it never see an uncommitted token.
+     */
     @Override
-    @Transactional
     public AuthResponse refreshToken(String refreshToken) {
-        RefreshToken token = refreshTokenRepository.findByToken(refreshToken)
-                .orElseThrow(() -> new RuntimeException("Refresh token not found"));
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
         
-        if (token.getExpiryDate().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(token);
-            throw new RuntimeException("Refresh token was expired. Please make a new signin request");
-        }
-        
-        User user = token.getUser();
+        User user = userRepository.findAllWithRolesByIdIn(List.of(rotation.userId())).stream()
+                .findFirst()
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + rotation.userId()));
         String newAccessToken = generateJwtToken(user);
-        RefreshToken newRefreshToken = createRefreshToken(user.getId());
-        
-        // Delete the old refresh token
-        refreshTokenRepository.delete(token);
         
         // Get user roles
         Set<String> roles = user.getRoles() != null ?
@@ -117,7 +125,7 @@ public class AuthServiceImpl implements AuthService {
         
         return AuthResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(newRefreshToken.getToken())
+                .refreshToken(rotation.refreshToken())
                 .username(user.getUsername())
                 .email(user.getEmail())
                 .roles(roles)
@@ -126,9 +134,8 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    @Transactional
     public void logout(String refreshToken) {
-        refreshTokenRepository.findByToken(refreshToken).ifPresent(refreshTokenRepository::delete);
+        refreshTokenService.revoke(refreshToken);
     }
 
     @Override
@@ -142,29 +149,24 @@ public class AuthServiceImpl implements AuthService {
         Instant now = Instant.now();
         Instant expiryDate = now.plusMillis(jwtConfig.getExpirationMs());
         
+        List<String> roles = user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toList());
+        
         return Jwts.builder()
                 .setSubject(user.getUsername())
+                .claim(JwtClaimNames.USER_ID, user.getId())
+                .claim(JwtClaimNames.ROLES, roles)
+                .claim(JwtClaimNames.TOKEN_VERSION, user.getTokenVersion())
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(expiryDate))
-                .signWith(key)
+                .signWith(tokenVerifier.getSigningKey())
                 .compact();
     }
 
     @Override
-    @Transactional
-    public RefreshToken createRefreshToken(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
-        
-        // Delete existing refresh token for the user if exists
-        refreshTokenRepository.deleteByUser(user);
-        
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
-        refreshToken.setToken(UUID.randomUUID().toString());
-        refreshToken.setExpiryDate(Instant.now().plusMillis(jwtConfig.getRefreshExpirationMs()));
-        
-        return refreshTokenRepository.save(refreshToken);
+    public String createRefreshToken(Long userId) {
+        return refreshTokenService.issue(userId);
     }
 
     @Override
@@ -190,21 +192,7 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
-        } catch (SignatureException e) {
-            log.error("Invalid JWT signature: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
-        }
-        return false;
+        return tokenVerifier.verify(authToken).isPresent();
     }
 
     @Override
@@ -229,4 +217,7 @@ public class AuthServiceImpl implements AuthService {
         
         return userDto;
     }
+
+    private record Login(User user, String refreshToken) {
+    }
 }
@@ -2,10 +2,9 @@ package com.enterprise.portfolio.service.impl;
 
 import com.enterprise.portfolio.dto.BaseDto;
 import com.enterprise.portfolio.exception.ResourceNotFoundException;
+import com.enterprise.portfolio.mapper.EntityMapper;
 import com.enterprise.portfolio.model.BaseEntity;
 import com.enterprise.portfolio.service.BaseService;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -20,12 +19,11 @@ public abstract class BaseServiceImpl<D extends BaseDto, E extends BaseEntity, I
     protected final R repository;
     protected final Class<E> entityClass;
     protected final Class<D> dtoClass;
+    protected final EntityMapper<D, E> mapper;
 
-    @Autowired
-    protected ModelMapper modelMapper;
-
-    protected BaseServiceImpl(R repository, Class<E> entityClass, Class<D> dtoClass) {
+    protected BaseServiceImpl(R repository, EntityMapper<D, E> mapper, Class<E> entityClass, Class<D> dtoClass) {
         this.repository = repository;
+        this.mapper = mapper;
         this.entityClass = entityClass;
         this.dtoClass = dtoClass;
     }
@@ -83,11 +81,11 @@ public abstract class BaseServiceImpl<D extends BaseDto, E extends BaseEntity, I
 
     @Override
     public D toDto(E entity) {
-        return modelMapper.map(entity, dtoClass);
+        return mapper.toDto(entity);
     }
 
     @Override
     public E toEntity(D dto) {
-        return modelMapper.map(dto, entityClass);
+        return mapper.toEntity(dto);
     }
 }
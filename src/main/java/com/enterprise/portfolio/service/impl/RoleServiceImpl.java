@@ -3,6 +3,7 @@ package com.enterprise.portfolio.service.impl;
 import com.enterprise.portfolio.dto.RoleDto;
 import com.enterprise.portfolio.exception.ResourceAlreadyExistsException;
 import com.enterprise.portfolio.exception.ResourceNotFoundException;
+import com.enterprise.portfolio.mapper.RoleMapper;
 import com.enterprise.portfolio.model.Role;
 import com.enterprise.portfolio.repository.RoleRepository;
 import com.enterprise.portfolio.repository.UserRepository;
@@ -21,8 +22,8 @@ public class RoleServiceImpl extends BaseServiceImpl<RoleDto, Role, Long, RoleRe
     private final UserRepository userRepository;
 
     @Autowired
-    public RoleServiceImpl(RoleRepository repository, UserRepository userRepository) {
-        super(repository, Role.class, RoleDto.class);
+    public RoleServiceImpl(RoleRepository repository, RoleMapper roleMapper, UserRepository userRepository) {
+        super(repository, roleMapper, Role.class, RoleDto.class);
         this.userRepository = userRepository;
     }
 
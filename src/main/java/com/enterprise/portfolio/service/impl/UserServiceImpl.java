@@ -1,17 +1,23 @@
 package com.enterprise.portfolio.service.impl;
 
+import com.enterprise.portfolio.dto.CursorPageDto;
 import com.enterprise.portfolio.dto.UserDto;
+import com.enterprise.portfolio.exception.BadRequestException;
 import com.enterprise.portfolio.exception.ResourceAlreadyExistsException;
 import com.enterprise.portfolio.exception.ResourceNotFoundException;
+import com.enterprise.portfolio.mapper.UserMapper;
 import com.enterprise.portfolio.model.Role;
 import com.enterprise.portfolio.model.User;
 import com.enterprise.portfolio.repository.RoleRepository;
 import com.enterprise.portfolio.repository.UserRepository;
+import com.enterprise.portfolio.security.TokenVersionRegistry;
+import com.enterprise.portfolio.security.UserPrincipalCache;
 import com.enterprise.portfolio.service.UserService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,25 +27,36 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class UserServiceImpl extends BaseServiceImpl<UserDto, User, Long, UserRepository> implements UserService {
 
+    private static final int MIN_FULLTEXT_LENGTH = 2;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     @Autowired
     public UserServiceImpl(UserRepository repository, 
-                          ModelMapper modelMapper,
+                          UserMapper userMapper,
                           PasswordEncoder passwordEncoder,
-                          RoleRepository roleRepository) {
-        super(repository, User.class, UserDto.class);
-        this.modelMapper = modelMapper;
+                          RoleRepository roleRepository,
+                          UserPrincipalCache userPrincipalCache,
+                          TokenVersionRegistry tokenVersionRegistry) {
+        super(repository, userMapper, User.class, UserDto.class);
         this.passwordEncoder = passwordEncoder;
         this.roleRepository = roleRepository;
+        this.userPrincipalCache = userPrincipalCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     @Override
@@ -103,7 +120,34 @@ public class UserServiceImpl extends BaseServiceImpl<UserDto, User, Long, UserRe
         }
         
         user.setPassword(passwordEncoder.encode(newPassword));
+        tokenVersionRegistry.bump(user);
         repository.save(user);
+        userPrincipalCache.evict(user);
+    }
+
+    @Override
+    public UserDto update(Long id, UserDto dto) {
+        User user = findEntityById(id);
+        userPrincipalCache.evict(user);
+        
+        // Apply profile fields onto the managed entity so password, roles and token version are preserved
+        if (user.isEnabled() != dto.isEnabled() || !user.getUsername().equals(dto.getUsername())) {
+            tokenVersionRegistry.bump(user);
+        }
+        user.setUsername(dto.getUsername());
+        user.setEmail(dto.getEmail());
+        user.setFirstName(dto.getFirstName());
+        user.setLastName(dto.getLastName());
+        user.setEnabled(dto.isEnabled());
+        return toDto(repository.save(user));
+    }
+
+    @Override
+    public void delete(Long id) {
+        User user = findEntityById(id);
+        repository.delete(user);
+        userPrincipalCache.evict(user);
+        tokenVersionRegistry.revokeAll(id);
     }
 
     @Override
@@ -134,10 +178,90 @@ public class UserServiceImpl extends BaseServiceImpl<UserDto, User, Long, UserRe
         return findByUsername(username);
     }
 
+    /**
+     * Pages are always ordered by id in the end, so LIMIT/OFFSET boundaries are stable across requests.
+     * Costs the id page, the roles fetch and, as {@link Page} reports totals, a count that Spring Data skips
+     * when the page itself shows the total (first or last page not filled).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserDto> findAll(Pageable pageable) {
+        return toDtoPage(repository.findPageOfIds(withIdTieBreaker(pageable)));
+    }
+
+    static Pageable withIdTieBreaker(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().getOrderFor("id") != null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("id")));
+    }
+
+    /**
+     * Indexed user search: prefix matches on username/email plus, for queries of at least
+     * {@value #MIN_FULLTEXT_LENGTH} characters, substring matches through the ngram FULLTEXT index.
+     * Results are ordered by id and paginated by keyset ({@code afterId}).
+     */
     @Override
-    public Page<UserDto> searchUsers(String query, Pageable pageable) {
-        return repository.searchUsers(query, pageable)
-                .map(user -> super.toDto(user));
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserDto> searchUsers(String query, Long afterId, int size) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        long after = afterId != null ? afterId : 0L;
+        String prefix = escapeLike(trimmed) + "%";
+
+        // One extra row tells whether another page exists
+        List<Long> ids = trimmed.length() < MIN_FULLTEXT_LENGTH
+                ? repository.searchIdsByPrefix(prefix, after, limit + 1)
+                : repository.searchIdsByPrefixOrFullText(prefix, toFullTextPhrase(trimmed), after, limit + 1);
+
+        boolean hasMore = ids.size() > limit;
+        List<Long> pageIds = hasMore ? ids.subList(0, limit) : ids;
+        List<UserDto> content = toDtoList(pageIds);
+        return CursorPageDto.<UserDto>builder()
+                .content(content)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? String.valueOf(pageIds.get(pageIds.size() - 1)) : null)
+                .build();
+    }
+
+    private List<UserDto> toDtoList(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> users = repository.findAllWithRolesByIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Quote the query as a boolean-mode phrase so ngram matching behaves like a substring search and
+     * user input cannot inject FULLTEXT operators.
+     */
+    private static String toFullTextPhrase(String value) {
+        return "\"" + value.replace("\"", " ") + "\"";
+    }
+
+    /**
+     * Load a page of users with their roles in a single fetch, preserving the order of the id page.
+     */
+    private Page<UserDto> toDtoPage(Page<Long> ids) {
+        if (ids.isEmpty()) {
+            return ids.map(id -> null);
+        }
+        Map<Long, User> users = repository.findAllWithRolesByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.map(id -> toDto(users.get(id)));
     }
 
     @Override
@@ -149,7 +273,9 @@ public class UserServiceImpl extends BaseServiceImpl<UserDto, User, Long, UserRe
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found with id: " + roleId));
         
         user.getRoles().add(role);
+        tokenVersionRegistry.bump(user);
         User updatedUser = repository.save(user);
+        userPrincipalCache.evict(user);
         return toDto(updatedUser);
     }
 
@@ -162,7 +288,9 @@ public class UserServiceImpl extends BaseServiceImpl<UserDto, User, Long, UserRe
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found with id: " + roleId));
         
         user.getRoles().remove(role);
+        tokenVersionRegistry.bump(user);
         User updatedUser = repository.save(user);
+        userPrincipalCache.evict(user);
         return toDto(updatedUser);
     }
 
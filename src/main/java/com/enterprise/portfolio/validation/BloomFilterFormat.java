@@ -0,0 +1,76 @@
+package com.enterprise.portfolio.validation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * On-disk layout of the breached password Bloom filter, shared by {@link BreachedPasswordFilter} and
+ * {@link BreachedPasswordFilterBuilder}. JDK only, so the builder runs from plain {@code target/classes}.
+ * <p>
+ * A 32-byte header ({@code magic, version, hashCount, reserved} as ints, then {@code bitCount} and
+ * {@code itemCount} as longs, big-endian) is followed by the bit array, bit {@code i} being bit {@code i & 7}
+ * of byte {@code i >>> 3}. Items are SHA-1 digests of the UTF-8 password, the format breach corpora are
+ * published in; bit positions come from double hashing over the first two 64-bit words of the digest.
+ */
+final class BloomFilterFormat {
+
+    static final int MAGIC = 0x50574246; // "PWBF"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    // Mapped in 1 GiB segments: a single MappedByteBuffer cannot exceed 2 GiB
+    static final long SEGMENT_BYTES = 1L << 30;
+
+    private BloomFilterFormat() {
+    }
+
+    static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    /**
+     * First 64-bit word of a digest; {@code h2} is the second, forced odd.
+     */
+    static long h1(byte[] digest) {
+        return ByteBuffer.wrap(digest, 0, 8).getLong();
+    }
+
+    static long h2(byte[] digest) {
+        return ByteBuffer.wrap(digest, 8, 8).getLong() | 1;
+    }
+
+    static long bitIndex(long h1, long h2, int i, long bitCount) {
+        return Math.floorMod(h1 + i * h2, bitCount);
+    }
+
+    static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long bitCount) throws IOException {
+        long bytes = (bitCount + 7) >>> 3;
+        int count = (int) ((bytes + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+        MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        for (int s = 0; s < count; s++) {
+            long offset = s * SEGMENT_BYTES;
+            segments[s] = channel.map(mode, HEADER_BYTES + offset, Math.min(SEGMENT_BYTES, bytes - offset));
+        }
+        return segments;
+    }
+
+    static boolean isSet(MappedByteBuffer[] segments, long bit) {
+        long byteIndex = bit >>> 3;
+        byte b = segments[(int) (byteIndex / SEGMENT_BYTES)].get((int) (byteIndex % SEGMENT_BYTES));
+        return (b & (1 << (bit & 7))) != 0;
+    }
+
+    static void set(MappedByteBuffer[] segments, long bit) {
+        long byteIndex = bit >>> 3;
+        MappedByteBuffer segment = segments[(int) (byteIndex / SEGMENT_BYTES)];
+        int index = (int) (byteIndex % SEGMENT_BYTES);
+        segment.put(index, (byte) (segment.get(index) | (1 << (bit & 7))));
+    }
+}
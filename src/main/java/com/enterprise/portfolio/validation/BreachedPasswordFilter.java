@@ -0,0 +1,93 @@
+package com.enterprise.portfolio.validation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Local check against known breached passwords, backed by a memory-mapped Bloom filter built offline with
+ * {@link BreachedPasswordFilterBuilder} ({@code app.security.password.breach-filter}).
+ * <p>
+ * A lookup is one SHA-1 and a fixed number of bit probes into the mapping, independent of the size of the
+ * breach list and without any network call; the operating system pages in the filter as needed. False
+ * positives occur at the rate the filter was built for, false negatives never. Without a configured file
+ * the check is disabled.
+ */
+@Slf4j
+@Component
+public class BreachedPasswordFilter {
+
+    private final MappedByteBuffer[] segments;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BreachedPasswordFilter(@Value("${app.security.password.breach-filter:}") String file) throws IOException {
+        if (file == null || file.isBlank()) {
+            this.segments = null;
+            this.bitCount = 0;
+            this.hashCount = 0;
+            log.info("Breached password filter not configured; check disabled");
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(BloomFilterFormat.HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            if (header.remaining() < BloomFilterFormat.HEADER_BYTES || header.getInt() != BloomFilterFormat.MAGIC) {
+                throw new IllegalStateException("Not a breached password filter: " + file);
+            }
+            int version = header.getInt();
+            if (version != BloomFilterFormat.VERSION) {
+                throw new IllegalStateException("Unsupported breached password filter version " + version + ": " + file);
+            }
+            this.hashCount = header.getInt();
+            header.getInt();
+            this.bitCount = header.getLong();
+            long items = header.getLong();
+            // A zero hash count would accept every password as breached, a zero bit count divides by zero
+            if (hashCount <= 0 || bitCount <= 0) {
+                throw new IllegalStateException("Corrupt breached password filter header (" + hashCount
+                        + " hashes, " + bitCount + " bits): " + file);
+            }
+            if (channel.size() < BloomFilterFormat.HEADER_BYTES + ((bitCount + 7) >>> 3)) {
+                throw new IllegalStateException("Truncated breached password filter: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            this.segments = BloomFilterFormat.map(channel, FileChannel.MapMode.READ_ONLY, bitCount);
+            log.info("Loaded breached password filter {} ({} passwords, {} MiB, {} hashes)",
+                    file, items, (bitCount >>> 3) >> 20, hashCount);
+        }
+    }
+
+    public boolean isEnabled() {
+        return segments != null;
+    }
+
+    /**
+     * Whether the password is probably in the breach list; {@code false} is definite.
+     */
+    public boolean mightContain(String password) {
+        if (segments == null) {
+            return false;
+        }
+        byte[] digest = BloomFilterFormat.sha1().digest(password.getBytes(StandardCharsets.UTF_8));
+        long h1 = BloomFilterFormat.h1(digest);
+        long h2 = BloomFilterFormat.h2(digest);
+        for (int i = 0; i < hashCount; i++) {
+            if (!BloomFilterFormat.isSet(segments, BloomFilterFormat.bitIndex(h1, h2, i, bitCount))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
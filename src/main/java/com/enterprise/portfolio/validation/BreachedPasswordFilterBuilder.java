@@ -0,0 +1,101 @@
+package com.enterprise.portfolio.validation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+
+/**
+ * Builds the {@link BreachedPasswordFilter} file from a list of SHA-1 password hashes, one per line as hex,
+ * optionally followed by {@code :count} (the format of the public breach corpora):
+ * <pre>
+ * mvn -q compile
+ * java -cp target/classes com.enterprise.portfolio.validation.BreachedPasswordFilterBuilder \
+ *      pwned-passwords-sha1.txt breached-passwords.bloom [falsePositiveRate]
+ * </pre>
+ * The list is read twice, once to count and once to fill the filter, which is written through a read-write
+ * mapping so memory use stays flat whatever the list size. The default false positive rate is 0.001
+ * (about 14.4 bits per password).
+ */
+public final class BreachedPasswordFilterBuilder {
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+    private static final int SHA1_HEX_LENGTH = 40;
+
+    private BreachedPasswordFilterBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BreachedPasswordFilterBuilder <sha1-hash-list> <output-file> [falsePositiveRate]");
+            System.exit(2);
+        }
+        double falsePositiveRate = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+        long start = System.currentTimeMillis();
+        long items = build(Path.of(args[0]), Path.of(args[1]), falsePositiveRate);
+        System.out.printf("Wrote %s: %d passwords in %d ms%n", args[1], items, System.currentTimeMillis() - start);
+    }
+
+    static long build(Path hashList, Path output, double falsePositiveRate) throws IOException {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        long items = 0;
+        try (BufferedReader reader = Files.newBufferedReader(hashList, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() >= SHA1_HEX_LENGTH) {
+                    items++;
+                }
+            }
+        }
+
+        // Optimal size and hash count for the expected number of items
+        long bitCount = Math.max(64, (long) Math.ceil(-Math.max(1, items) * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2))));
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / Math.max(1, items) * Math.log(2)));
+
+        Files.deleteIfExists(output);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(BloomFilterFormat.HEADER_BYTES);
+            header.putInt(BloomFilterFormat.MAGIC)
+                    .putInt(BloomFilterFormat.VERSION)
+                    .putInt(hashCount)
+                    .putInt(0)
+                    .putLong(bitCount)
+                    .putLong(items)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+
+            MappedByteBuffer[] segments = BloomFilterFormat.map(channel, FileChannel.MapMode.READ_WRITE, bitCount);
+            HexFormat hex = HexFormat.of();
+            try (BufferedReader reader = Files.newBufferedReader(hashList, StandardCharsets.US_ASCII)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.length() < SHA1_HEX_LENGTH) {
+                        continue;
+                    }
+                    byte[] digest = hex.parseHex(line, 0, SHA1_HEX_LENGTH);
+                    long h1 = BloomFilterFormat.h1(digest);
+                    long h2 = BloomFilterFormat.h2(digest);
+                    for (int i = 0; i < hashCount; i++) {
+                        BloomFilterFormat.set(segments, BloomFilterFormat.bitIndex(h1, h2, i, bitCount));
+                    }
+                }
+            }
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+        return items;
+    }
+}
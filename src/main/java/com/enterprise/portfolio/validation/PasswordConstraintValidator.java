@@ -1,88 +1,104 @@
 package com.enterprise.portfolio.validation;
 
 import org.passay.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Passay policy built once per constraint in {@link #initialize(ValidPassword)}; rules and the validator
+ * are immutable and shared by all calls. When a {@link BreachedPasswordFilter} is available, passwords
+ * from known breaches are rejected as well.
+ */
 public class PasswordConstraintValidator implements ConstraintValidator<ValidPassword, String> {
 
-    private int minLength;
-    private int maxLength;
-    private boolean requireUppercase;
-    private boolean requireLowercase;
-    private boolean requireDigit;
-    private boolean requireSpecialChar;
+    static final String BREACHED_MESSAGE = "Password has appeared in a known data breach";
 
-    @Override
-    public void initialize(ValidPassword constraint) {
-        this.minLength = constraint.minLength();
-        this.maxLength = constraint.maxLength();
-        this.requireUppercase = constraint.requireUppercase();
-        this.requireLowercase = constraint.requireLowercase();
-        this.requireDigit = constraint.requireDigit();
-        this.requireSpecialChar = constraint.requireSpecialChar();
+    private final BreachedPasswordFilter breachedPasswordFilter;
+    private PasswordValidator validator;
+    private boolean rejectBreached;
+
+    /**
+     * Used outside Spring, e.g. by a plain Hibernate Validator factory: no breach check.
+     */
+    public PasswordConstraintValidator() {
+        this.breachedPasswordFilter = null;
+    }
+
+    @Autowired
+    public PasswordConstraintValidator(ObjectProvider<BreachedPasswordFilter> breachedPasswordFilter) {
+        this.breachedPasswordFilter = breachedPasswordFilter.getIfAvailable();
     }
 
     @Override
-    public boolean isValid(String password, ConstraintValidatorContext context) {
-        if (password == null) {
-            return false;
-        }
+    public void initialize(ValidPassword constraint) {
+        List<Rule> rules = new ArrayList<>();
 
-        List<Rule> rules = new java.util.ArrayList<>();
-        
         // Length rules
-        rules.add(new LengthRule(minLength, maxLength));
-        
+        rules.add(new LengthRule(constraint.minLength(), constraint.maxLength()));
+
         // Character rules
-        if (requireUppercase) {
+        if (constraint.requireUppercase()) {
             rules.add(new CharacterRule(EnglishCharacterData.UpperCase, 1));
         }
-        
-        if (requireLowercase) {
+
+        if (constraint.requireLowercase()) {
             rules.add(new CharacterRule(EnglishCharacterData.LowerCase, 1));
         }
-        
-        if (requireDigit) {
+
+        if (constraint.requireDigit()) {
             rules.add(new CharacterRule(EnglishCharacterData.Digit, 1));
         }
-        
-        if (requireSpecialChar) {
+
+        if (constraint.requireSpecialChar()) {
             rules.add(new CharacterRule(EnglishCharacterData.Special, 1));
         }
-        
+
         // No whitespace
         rules.add(new WhitespaceRule());
-        
+
         // No sequential characters
         rules.add(new IllegalSequenceRule(EnglishSequenceData.Alphabetical, 5, false));
         rules.add(new IllegalSequenceRule(EnglishSequenceData.Numerical, 5, false));
         rules.add(new IllegalSequenceRule(EnglishSequenceData.USQwerty, 5, false));
-        
+
         // No repeated characters
         rules.add(new CharacterRule(EnglishCharacterData.Alphabetical, 1));
         rules.add(new CharacterRule(EnglishCharacterData.Digit, 1));
-        
-        // Create validator and validate password
-        PasswordValidator validator = new PasswordValidator(rules);
+
+        this.validator = new PasswordValidator(rules);
+        this.rejectBreached = constraint.rejectBreached()
+                && breachedPasswordFilter != null && breachedPasswordFilter.isEnabled();
+    }
+
+    @Override
+    public boolean isValid(String password, ConstraintValidatorContext context) {
+        if (password == null) {
+            return false;
+        }
+
         RuleResult result = validator.validate(new PasswordData(password));
-        
-        if (result.isValid()) {
+        boolean breached = rejectBreached && breachedPasswordFilter.mightContain(password);
+
+        if (result.isValid() && !breached) {
             return true;
         }
-        
+
         // Customize the error message
-        List<String> messages = validator.getMessages(result);
-        String messageTemplate = messages.stream().collect(Collectors.joining(", "));
-        
+        List<String> messages = new ArrayList<>(validator.getMessages(result));
+        if (breached) {
+            messages.add(BREACHED_MESSAGE);
+        }
+        String messageTemplate = String.join(", ", messages);
+
         context.disableDefaultConstraintViolation();
         context.buildConstraintViolationWithTemplate(messageTemplate)
                .addConstraintViolation();
-        
+
         return false;
     }
 }
@@ -26,4 +26,7 @@ public @interface ValidPassword {
     boolean requireDigit() default true;
     
     boolean requireSpecialChar() default true;
+    
+    /** Reject passwords found in the breached password filter, when one is configured. */
+    boolean rejectBreached() default true;
 }
@@ -0,0 +1,2 @@
+-- Serves the periodic token-version reload, which only reads users whose tokens were revoked at least once
+CREATE INDEX idx_users_token_version ON users(token_version);
@@ -0,0 +1,16 @@
+-- Ledger replay checkpoints: folded positions of a portfolio after a given transaction
+CREATE TABLE IF NOT EXISTS ledger_checkpoints (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    portfolio_id BIGINT NOT NULL,
+    last_transaction_id BIGINT NOT NULL,
+    last_transaction_date DATETIME(6) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    positions MEDIUMTEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_ledger_checkpoints_portfolio ON ledger_checkpoints(portfolio_id, last_transaction_date, last_transaction_id);
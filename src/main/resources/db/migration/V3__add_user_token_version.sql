@@ -0,0 +1,2 @@
+-- Token version embedded in access tokens; bumping it revokes every token issued before
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
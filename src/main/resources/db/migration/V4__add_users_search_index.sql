@@ -0,0 +1,2 @@
+-- n-gram FULLTEXT index so substring search over user names and emails does not scan the table
+ALTER TABLE users ADD FULLTEXT INDEX ft_users_search (username, email, first_name, last_name) WITH PARSER ngram;
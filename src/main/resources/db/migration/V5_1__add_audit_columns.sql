@@ -0,0 +1,17 @@
+-- Audit and optimistic-locking columns mapped by BaseEntity but missing from the V1 tables,
+-- without which schema validation (ddl-auto: validate) rejects the users, roles and audit_logs entities
+ALTER TABLE users
+    ADD COLUMN created_by VARCHAR(255),
+    ADD COLUMN updated_by VARCHAR(255),
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE roles
+    ADD COLUMN created_by VARCHAR(255),
+    ADD COLUMN updated_by VARCHAR(255),
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE audit_logs
+    ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP AFTER created_at,
+    ADD COLUMN created_by VARCHAR(255),
+    ADD COLUMN updated_by VARCHAR(255),
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
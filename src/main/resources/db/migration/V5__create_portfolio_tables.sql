@@ -0,0 +1,87 @@
+-- Create assets table
+CREATE TABLE IF NOT EXISTS assets (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    symbol VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    asset_type VARCHAR(20) NOT NULL,
+    currency VARCHAR(10),
+    current_price DECIMAL(19,8),
+    price_updated_at DATETIME(6) NULL,
+    exchange VARCHAR(10),
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT,
+    CONSTRAINT uk_assets_symbol UNIQUE (symbol)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create portfolios table
+CREATE TABLE IF NOT EXISTS portfolios (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT,
+    CONSTRAINT fk_portfolios_user_id FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    -- Serves findByUser, findByIdAndUser and existsByNameAndUser
+    CONSTRAINT uk_portfolios_user_name UNIQUE (user_id, name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create holdings table
+CREATE TABLE IF NOT EXISTS holdings (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    portfolio_id BIGINT NOT NULL,
+    asset_id BIGINT NOT NULL,
+    quantity DECIMAL(19,8) NOT NULL,
+    average_purchase_price DECIMAL(19,8) NOT NULL,
+    total_investment DECIMAL(19,2) NOT NULL,
+    current_value DECIMAL(19,2),
+    profit_loss DECIMAL(19,2),
+    profit_loss_percentage DOUBLE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT,
+    CONSTRAINT fk_holdings_portfolio_id FOREIGN KEY (portfolio_id) REFERENCES portfolios (id) ON DELETE CASCADE,
+    CONSTRAINT fk_holdings_asset_id FOREIGN KEY (asset_id) REFERENCES assets (id),
+    CONSTRAINT uk_holdings_portfolio_asset UNIQUE (portfolio_id, asset_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create transactions table
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    portfolio_id BIGINT NOT NULL,
+    asset_id BIGINT NULL,
+    type VARCHAR(20) NOT NULL,
+    quantity DECIMAL(19,8) NOT NULL,
+    price_per_unit DECIMAL(19,8),
+    total_amount DECIMAL(19,2) NOT NULL,
+    transaction_fee DECIMAL(19,2),
+    transaction_date DATETIME(6) NOT NULL,
+    notes VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT,
+    CONSTRAINT fk_transactions_portfolio_id FOREIGN KEY (portfolio_id) REFERENCES portfolios (id) ON DELETE CASCADE,
+    CONSTRAINT fk_transactions_asset_id FOREIGN KEY (asset_id) REFERENCES assets (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create indexes for performance
+-- Reverse lookup from a price change to the holdings it affects
+CREATE INDEX idx_holdings_asset_id ON holdings(asset_id);
+-- Ledger replay and history pages: InnoDB appends the primary key, so this also orders by (transaction_date, id)
+CREATE INDEX idx_transactions_portfolio_date ON transactions(portfolio_id, transaction_date);
+CREATE INDEX idx_transactions_asset_id ON transactions(asset_id);
+
+-- Ledger checkpoints were created before portfolios existed
+ALTER TABLE ledger_checkpoints
+    ADD CONSTRAINT fk_ledger_checkpoints_portfolio_id FOREIGN KEY (portfolio_id) REFERENCES portfolios (id) ON DELETE CASCADE;
@@ -0,0 +1,37 @@
+-- Denormalized per-portfolio read model for the dashboard, maintained incrementally by PortfolioSummaryService
+CREATE TABLE IF NOT EXISTS portfolio_summary (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    portfolio_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    portfolio_name VARCHAR(255) NOT NULL,
+    total_value DECIMAL(19,2) NOT NULL DEFAULT 0,
+    total_investment DECIMAL(19,2) NOT NULL DEFAULT 0,
+    profit_loss DECIMAL(19,2) NOT NULL DEFAULT 0,
+    holding_count INT NOT NULL DEFAULT 0,
+    top_allocations VARCHAR(1024),
+    last_transaction_at DATETIME(6),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    version BIGINT,
+    CONSTRAINT uk_portfolio_summary_portfolio UNIQUE (portfolio_id),
+    CONSTRAINT fk_portfolio_summary_portfolio_id FOREIGN KEY (portfolio_id) REFERENCES portfolios (id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Serves the dashboard: all summaries of one user, in name order
+CREATE INDEX idx_portfolio_summary_user ON portfolio_summary(user_id, portfolio_name);
+
+-- Backfill existing portfolios; top allocations are filled in on the next holdings rebuild
+INSERT INTO portfolio_summary (portfolio_id, user_id, portfolio_name, total_value, total_investment, profit_loss,
+                               holding_count, last_transaction_at, version)
+SELECT p.id,
+       p.user_id,
+       p.name,
+       COALESCE((SELECT SUM(h.current_value) FROM holdings h WHERE h.portfolio_id = p.id), 0),
+       COALESCE((SELECT SUM(h.total_investment) FROM holdings h WHERE h.portfolio_id = p.id), 0),
+       COALESCE((SELECT SUM(h.profit_loss) FROM holdings h WHERE h.portfolio_id = p.id), 0),
+       (SELECT COUNT(*) FROM holdings h WHERE h.portfolio_id = p.id),
+       (SELECT MAX(t.transaction_date) FROM transactions t WHERE t.portfolio_id = p.id),
+       0
+FROM portfolios p;
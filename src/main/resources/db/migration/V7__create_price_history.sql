@@ -0,0 +1,29 @@
+-- Append-only price history. One row per asset per ingestion window (the window's closing price);
+-- clustered on (asset_id, priced_at) so range reads for one asset are sequential.
+CREATE TABLE IF NOT EXISTS price_ticks (
+    asset_id BIGINT NOT NULL,
+    priced_at DATETIME(6) NOT NULL,
+    price DECIMAL(19,8) NOT NULL,
+    PRIMARY KEY (asset_id, priced_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Serves retention: raw ticks are deleted by age across all assets
+CREATE INDEX idx_price_ticks_priced_at ON price_ticks(priced_at);
+
+-- OHLC rollups at 1m, 1h and 1d resolution, maintained on every ingestion window.
+-- open_at/close_at make the upsert order-independent for late ticks.
+CREATE TABLE IF NOT EXISTS price_bars (
+    asset_id BIGINT NOT NULL,
+    resolution VARCHAR(3) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    open DECIMAL(19,8) NOT NULL,
+    high DECIMAL(19,8) NOT NULL,
+    low DECIMAL(19,8) NOT NULL,
+    close DECIMAL(19,8) NOT NULL,
+    open_at DATETIME(6) NOT NULL,
+    close_at DATETIME(6) NOT NULL,
+    tick_count INT NOT NULL,
+    PRIMARY KEY (asset_id, resolution, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_price_bars_resolution_bucket ON price_bars(resolution, bucket_start);
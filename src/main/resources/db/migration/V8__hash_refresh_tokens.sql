@@ -0,0 +1,25 @@
+-- Refresh tokens are stored as SHA-256 hashes only; existing tokens are hashed in place so sessions survive
+ALTER TABLE refresh_tokens
+    ADD COLUMN token_hash CHAR(64) NULL AFTER user_id,
+    ADD COLUMN created_by VARCHAR(255),
+    ADD COLUMN updated_by VARCHAR(255),
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE refresh_tokens SET token_hash = SHA2(token, 256);
+
+-- Login replaces the user's token with a single upsert, which needs at most one row per user.
+-- The unique key on user_id also serves the foreign key, so the plain V1 index on it is dropped.
+DELETE older FROM refresh_tokens older
+    JOIN refresh_tokens newer ON newer.user_id = older.user_id AND newer.id > older.id;
+
+ALTER TABLE refresh_tokens
+    DROP INDEX uk_refresh_token_token,
+    DROP INDEX idx_refresh_tokens_token,
+    DROP INDEX idx_refresh_tokens_user_id,
+    DROP COLUMN token,
+    MODIFY token_hash CHAR(64) NOT NULL,
+    ADD CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    ADD CONSTRAINT uk_refresh_tokens_user_id UNIQUE (user_id);
+
+-- Serves the scheduled purge of expired tokens
+CREATE INDEX idx_refresh_tokens_expiry_date ON refresh_tokens(expiry_date);
@@ -0,0 +1,8 @@
+-- Tombstones of deleted users: their access tokens carry no row to check against, so revocation outlives
+-- the users row until every token issued before deletion has expired
+CREATE TABLE revoked_users (
+    user_id BIGINT PRIMARY KEY,
+    revoked_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_revoked_users_revoked_at ON revoked_users(revoked_at);
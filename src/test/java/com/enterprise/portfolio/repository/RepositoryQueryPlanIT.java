@@ -0,0 +1,292 @@
+package com.enterprise.portfolio.repository;
+
+import com.enterprise.portfolio.model.Transaction.TransactionType;
+import com.enterprise.portfolio.support.MySqlIntegrationTest;
+import com.enterprise.portfolio.support.StatementRecorder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query the services issue against a seeded schema, re-runs each captured statement
+ * under {@code EXPLAIN} and fails if any table is read by a full scan ({@code type = ALL}).
+ * <p>
+ * Not covered: {@link AssetRepository#findAllPrices()} and {@link AssetRepository#findAllSymbolsAndTypes()},
+ * which read every asset by design to warm the in-memory price table, inserts, whose plans are always
+ * {@code ALL}, and {@link AuditLogRepository}, which nothing calls yet.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanIT extends MySqlIntegrationTest {
+
+    // Lookup tables of a handful of rows, which MySQL rightly scans instead of probing an index
+    private static final Set<String> SCANNABLE_TABLES = Set.of("roles");
+
+    private static final int USERS = 2000;
+    private static final int PORTFOLIOS = 5000;
+    private static final int ASSETS = 300;
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2021, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AssetRepository assetRepository;
+    @Autowired
+    private HoldingRepository holdingRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionLedgerReader transactionLedgerReader;
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+    @Autowired
+    private PortfolioSummaryRepository portfolioSummaryRepository;
+    @Autowired
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private PriceHistoryRepository priceHistoryRepository;
+
+    private TransactionTemplate rolledBack;
+    private long userId;
+    private long portfolioId;
+    private long assetId;
+    private List<Long> portfolioIds;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute((Statement statement) -> {
+            statement.execute("SET SESSION cte_max_recursion_depth = 100000");
+            String seq = "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < %d) ";
+            statement.execute("INSERT INTO users (username, email, password, token_version) "
+                    + seq.formatted(USERS)
+                    + "SELECT CONCAT('planner', n), CONCAT('planner', n, '@example.com'), 'x', IF(n % 100 = 0, 1, 0) FROM seq");
+            statement.execute("INSERT INTO user_roles (user_id, role_id) "
+                    + "SELECT u.id, r.id FROM users u JOIN roles r ON r.name = 'ROLE_USER' WHERE u.username LIKE 'planner%'");
+            statement.execute("INSERT INTO assets (symbol, name, asset_type, current_price, version) "
+                    + seq.formatted(ASSETS)
+                    + "SELECT CONCAT('PLAN', n), CONCAT('Plan asset ', n), 'STOCK', 10 + n, 0 FROM seq");
+            statement.execute("INSERT INTO portfolios (user_id, name, version) "
+                    + seq.formatted(PORTFOLIOS)
+                    + "SELECT u.id, CONCAT('Plan ', n), 0 FROM seq JOIN users u ON u.username = CONCAT('planner', n % "
+                    + USERS + " + 1)");
+            statement.execute("INSERT INTO holdings (portfolio_id, asset_id, quantity, average_purchase_price, "
+                    + "total_investment, current_value, profit_loss, version) "
+                    + seq.formatted(10)
+                    + "SELECT p.id, a.id, n, 10, 10 * n, a.current_price * n, a.current_price * n - 10 * n, 0 "
+                    + "FROM portfolios p JOIN seq JOIN assets a ON a.symbol = CONCAT('PLAN', (p.id * 7 + n) % " + ASSETS + " + 1) "
+                    + "WHERE p.name LIKE 'Plan %'");
+            statement.execute("INSERT INTO transactions (portfolio_id, asset_id, type, quantity, price_per_unit, "
+                    + "total_amount, transaction_date, version) "
+                    + seq.formatted(2)
+                    + "SELECT h.portfolio_id, h.asset_id, IF((n + h.id) % 5 = 0, 'DIVIDEND', 'BUY'), IF((n + h.id) % 5 = 0, 0, 1), 10, 10, "
+                    + "TIMESTAMP('2020-01-01') + INTERVAL ((n * 37 + h.id) % 1500) DAY, 0 "
+                    + "FROM holdings h JOIN seq JOIN portfolios p ON p.id = h.portfolio_id WHERE p.name LIKE 'Plan %'");
+            statement.execute("INSERT INTO portfolio_summary (portfolio_id, user_id, portfolio_name, version) "
+                    + "SELECT p.id, p.user_id, p.name, 0 FROM portfolios p WHERE p.name LIKE 'Plan %'");
+            statement.execute("INSERT INTO ledger_checkpoints (portfolio_id, last_transaction_id, last_transaction_date, "
+                    + "transaction_count, positions, version) "
+                    + "SELECT t.portfolio_id, MAX(t.id), MAX(t.transaction_date), COUNT(*), '[]', 0 FROM transactions t "
+                    + "JOIN portfolios p ON p.id = t.portfolio_id WHERE p.name LIKE 'Plan %' GROUP BY t.portfolio_id");
+            statement.execute("INSERT INTO refresh_tokens (user_id, token_hash, expiry_date, version) "
+                    + "SELECT u.id, SHA2(u.username, 256), NOW() + INTERVAL (u.id % 30 - 15) DAY, 0 FROM users u "
+                    + "WHERE u.username LIKE 'planner%'");
+            statement.execute("INSERT INTO revoked_users (user_id, revoked_at) "
+                    + seq.formatted(1000)
+                    + "SELECT 1000000 + n, NOW() - INTERVAL n HOUR FROM seq");
+            statement.execute("INSERT INTO price_ticks (asset_id, priced_at, price) "
+                    + seq.formatted(100)
+                    + "SELECT a.id, TIMESTAMP('2021-01-01') + INTERVAL (n * 6) HOUR, a.current_price FROM assets a JOIN seq "
+                    + "WHERE a.symbol LIKE 'PLAN%'");
+            statement.execute("INSERT INTO price_bars (asset_id, resolution, bucket_start, open, high, low, close, "
+                    + "open_at, close_at, tick_count) "
+                    + seq.formatted(400)
+                    + "SELECT a.id, '1d', TIMESTAMP('2021-01-01') + INTERVAL n DAY, 1, 1, 1, 1, "
+                    + "TIMESTAMP('2021-01-01') + INTERVAL n DAY, TIMESTAMP('2021-01-01') + INTERVAL n DAY, 1 "
+                    + "FROM assets a JOIN seq WHERE a.symbol LIKE 'PLAN%'");
+            statement.execute("ANALYZE TABLE users, user_roles, roles, assets, portfolios, holdings, transactions, "
+                    + "portfolio_summary, ledger_checkpoints, refresh_tokens, revoked_users, price_ticks, price_bars");
+            return null;
+        });
+
+        rolledBack = new TransactionTemplate(transactionManager);
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'planner7'", Long.class);
+        portfolioIds = jdbcTemplate.queryForList("SELECT id FROM portfolios WHERE user_id = ? ORDER BY id", Long.class, userId);
+        portfolioId = portfolioIds.get(0);
+        assetId = jdbcTemplate.queryForObject("SELECT id FROM assets WHERE symbol = 'PLAN42'", Long.class);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesAvoidFullScans() {
+        Instant now = Instant.now();
+        LocalDateTime future = LocalDateTime.of(2100, 1, 1, 0, 0);
+        return Stream.of(
+                plan("AssetRepository.findBySymbol", () -> assetRepository.findBySymbol("PLAN42")),
+                plan("AssetRepository.existsBySymbol", () -> assetRepository.existsBySymbol("PLAN42")),
+
+                plan("HoldingRepository.findByAssetId", () -> holdingRepository.findByAssetId(assetId)),
+                plan("HoldingRepository.findByPortfolioId", () -> holdingRepository.findByPortfolioId(portfolioId)),
+                plan("HoldingRepository.sumByPortfolioId", () -> holdingRepository.sumByPortfolioId(portfolioId)),
+                plan("HoldingRepository.sumByPortfolioIdAndUserId",
+                        () -> holdingRepository.sumByPortfolioIdAndUserId(portfolioId, userId)),
+                plan("HoldingRepository.findTopValuesByPortfolioId",
+                        () -> holdingRepository.findTopValuesByPortfolioId(portfolioId, PageRequest.of(0, 5))),
+                plan("HoldingRepository.findQuantitiesByPortfolioIds",
+                        () -> holdingRepository.findQuantitiesByPortfolioIds(portfolioIds)),
+
+                plan("TransactionRepository.streamLedger", () -> {
+                    try (var ledger = transactionRepository.streamLedger(portfolioId)) {
+                        ledger.forEach(entry -> { });
+                    }
+                }),
+                plan("TransactionRepository.streamLedgerAfter", () -> {
+                    try (var ledger = transactionRepository.streamLedgerAfter(portfolioId, FROM, 0L)) {
+                        ledger.forEach(entry -> { });
+                    }
+                }),
+                plan("TransactionRepository.streamLedgerBetween", () -> {
+                    try (var ledger = transactionRepository.streamLedgerBetween(portfolioId, FROM, TO)) {
+                        ledger.forEach(entry -> { });
+                    }
+                }),
+                plan("TransactionRepository.findHistoryPage", () -> transactionRepository.findHistoryPage(
+                        portfolioId, userId, future, Long.MAX_VALUE, FROM, TO, null, null, PageRequest.of(0, 50))),
+                plan("TransactionRepository.findHistoryPage (filtered)", () -> transactionRepository.findHistoryPage(portfolioId,
+                        userId, future, Long.MAX_VALUE, FROM, TO, TransactionType.BUY, assetId, PageRequest.of(0, 50))),
+                plan("TransactionRepository.findLastTransactionDate",
+                        () -> transactionRepository.findLastTransactionDate(portfolioId)),
+                plan("TransactionRepository.findFirstTransactionDateIfOwned",
+                        () -> transactionRepository.findFirstTransactionDateIfOwned(portfolioId, userId)),
+                plan("TransactionRepository.findAssetIds", () -> transactionRepository.findAssetIds(portfolioId)),
+                plan("TransactionLedgerReader.forEach", () -> transactionLedgerReader.forEach(portfolioId, row -> { })),
+
+                plan("PortfolioRepository.findByIdAndUserId", () -> portfolioRepository.findByIdAndUserId(portfolioId, userId)),
+                plan("PortfolioRepository.existsByIdAndUserId",
+                        () -> portfolioRepository.existsByIdAndUserId(portfolioId, userId)),
+                plan("PortfolioRepository.existsByNameAndUserId",
+                        () -> portfolioRepository.existsByNameAndUserId("Plan 6", userId)),
+                plan("PortfolioRepository.countByUserId", () -> portfolioRepository.countByUserId(userId)),
+                plan("PortfolioRepository.findDtosByUserId", () -> portfolioRepository.findDtosByUserId(userId)),
+                plan("PortfolioRepository.findDtoByIdAndUserId",
+                        () -> portfolioRepository.findDtoByIdAndUserId(portfolioId, userId)),
+                plan("PortfolioRepository.findIdsByUserId", () -> portfolioRepository.findIdsByUserId(userId)),
+                plan("PortfolioRepository.findOwnerUsername",
+                        () -> portfolioRepository.findOwnerUsername(portfolioId, userId)),
+
+                plan("PortfolioSummaryRepository.findByUserIdOrderByPortfolioName",
+                        () -> portfolioSummaryRepository.findByUserIdOrderByPortfolioName(userId)),
+                plan("PortfolioSummaryRepository.findByPortfolioId",
+                        () -> portfolioSummaryRepository.findByPortfolioId(portfolioId)),
+                plan("PortfolioSummaryRepository.findByPortfolioIdForUpdate",
+                        () -> portfolioSummaryRepository.findByPortfolioIdForUpdate(portfolioId)),
+                plan("PortfolioSummaryRepository.applyDelta",
+                        () -> portfolioSummaryRepository.applyDelta(portfolioId, BigDecimal.ONE, BigDecimal.ONE)),
+                plan("PortfolioSummaryRepository.rename", () -> portfolioSummaryRepository.rename(portfolioId, "Renamed")),
+
+                plan("LedgerCheckpointRepository.findFirstByPortfolioId...", () -> ledgerCheckpointRepository
+                        .findFirstByPortfolioIdOrderByLastTransactionDateDescLastTransactionIdDesc(portfolioId)),
+                plan("LedgerCheckpointRepository.findIdsNewestFirst",
+                        () -> ledgerCheckpointRepository.findIdsNewestFirst(portfolioId)),
+                plan("LedgerCheckpointRepository.deleteFrom", () -> ledgerCheckpointRepository.deleteFrom(portfolioId, FROM)),
+                plan("LedgerCheckpointRepository.deleteByPortfolioId",
+                        () -> ledgerCheckpointRepository.deleteByPortfolioId(portfolioId)),
+
+                plan("UserRepository.findByUsername", () -> userRepository.findByUsername("planner7")),
+                plan("UserRepository.findByEmail", () -> userRepository.findByEmail("planner7@example.com")),
+                plan("UserRepository.existsByUsername", () -> userRepository.existsByUsername("planner7")),
+                plan("UserRepository.existsByEmail", () -> userRepository.existsByEmail("planner7@example.com")),
+                plan("UserRepository.findByUsernameOrEmail", () -> userRepository.findByUsernameOrEmail("planner7")),
+                plan("UserRepository.findByUsernameWithRoles", () -> userRepository.findByUsernameWithRoles("planner7")),
+                plan("UserRepository.findByEmailWithRoles",
+                        () -> userRepository.findByEmailWithRoles("planner7@example.com")),
+                plan("UserRepository.findRevokedTokenVersions", () -> userRepository.findRevokedTokenVersions()),
+                plan("UserRepository.findRevokedUserIdsSince",
+                        () -> userRepository.findRevokedUserIdsSince(now.minus(1, ChronoUnit.DAYS))),
+                plan("UserRepository.deleteRevokedUsersBefore",
+                        () -> userRepository.deleteRevokedUsersBefore(now.minus(30, ChronoUnit.DAYS))),
+                plan("UserRepository.findPageOfIds", () -> userRepository.findPageOfIds(PageRequest.of(3, 20, Sort.by("id")))),
+                plan("UserRepository.searchIdsByPrefix", () -> userRepository.searchIdsByPrefix("planner12%", 0, 20)),
+                plan("UserRepository.searchIdsByPrefixOrFullText",
+                        () -> userRepository.searchIdsByPrefixOrFullText("planner12%", "\"planner12\"", 0, 20)),
+                plan("UserRepository.findAllWithRolesByIdIn",
+                        () -> userRepository.findAllWithRolesByIdIn(List.of(userId, userId + 1, userId + 2))),
+                plan("UserRepository.updatePasswordByUsername",
+                        () -> userRepository.updatePasswordByUsername("planner7", "y")),
+
+                plan("RoleRepository.findByName", () -> roleRepository.findByName("ROLE_USER")),
+                plan("RoleRepository.findByUsers_Id", () -> roleRepository.findByUsers_Id(userId)),
+
+                plan("RefreshTokenRepository.rotate", () -> refreshTokenRepository.rotate(
+                        "0".repeat(64), "1".repeat(64), now.plus(1, ChronoUnit.DAYS), now)),
+                plan("RefreshTokenRepository.findUserIdByTokenHash",
+                        () -> refreshTokenRepository.findUserIdByTokenHash("0".repeat(64))),
+                plan("RefreshTokenRepository.deleteByTokenHash",
+                        () -> refreshTokenRepository.deleteByTokenHash("0".repeat(64))),
+                plan("RefreshTokenRepository.deleteExpiredBefore",
+                        () -> refreshTokenRepository.deleteExpiredBefore(now.minus(10, ChronoUnit.DAYS), 500)),
+
+                plan("PriceHistoryRepository.findTicks", () -> priceHistoryRepository.findTicks(assetId, FROM, TO)),
+                plan("PriceHistoryRepository.findBars", () -> priceHistoryRepository.findBars(assetId, "1d", FROM, TO)),
+                plan("PriceHistoryRepository.findDailyCloses",
+                        () -> priceHistoryRepository.findDailyCloses(List.of(assetId, assetId + 1), FROM, TO)),
+                plan("PriceHistoryRepository.findDailyClosesIfOwned", () -> priceHistoryRepository
+                        .findDailyClosesIfOwned(portfolioId, userId, List.of(assetId, assetId + 1), FROM, TO)),
+                plan("PriceHistoryRepository.deleteTicksBefore",
+                        () -> priceHistoryRepository.deleteTicksBefore(FROM.plusDays(3), 500)),
+                plan("PriceHistoryRepository.deleteBarsBefore",
+                        () -> priceHistoryRepository.deleteBarsBefore("1d", FROM.plusDays(3), 500)));
+    }
+
+    private DynamicTest plan(String query, Runnable call) {
+        return DynamicTest.dynamicTest(query, () -> {
+            List<String> statements = StatementRecorder.record(() -> rolledBack.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                call.run();
+            }));
+
+            assertThat(statements).as("statements sent by %s", query).isNotEmpty();
+            for (String sql : statements) {
+                if (sql.toLowerCase(Locale.ROOT).startsWith("insert")) {
+                    continue;
+                }
+                assertThat(fullScans(sql)).as("tables fully scanned by %s:%n%s", query, sql).isEmpty();
+            }
+        });
+    }
+
+    private List<String> fullScans(String sql) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql).stream()
+                .filter(row -> "ALL".equals(row.get("type")))
+                .map(row -> String.valueOf(row.get("table")))
+                // <derivedN> and <unionM,N> are temporary tables MySQL materialises itself
+                .filter(table -> !table.startsWith("<") && !SCANNABLE_TABLES.contains(table))
+                .toList();
+    }
+}
@@ -0,0 +1,122 @@
+package com.enterprise.portfolio.security;
+
+import com.enterprise.portfolio.config.RateLimitProperties;
+import com.enterprise.portfolio.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final String ROUTE = "/api/portfolios";
+
+    private final MetricsService metricsService = new MetricsService(new SimpleMeterRegistry());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userLimitAppliesBehindClientLimit() throws Exception {
+        RateLimitProperties properties = properties(limit(100), limit(1));
+        Filter clientFilter = new RateLimitFilter(RateLimitFilter.Scope.CLIENT_IP, properties, metricsService);
+        Filter userFilter = new RateLimitFilter(RateLimitFilter.Scope.USER, properties, metricsService);
+
+        assertThat(send(clientFilter, userFilter, 1L).getStatus()).isEqualTo(200);
+        MockHttpServletResponse limited = send(clientFilter, userFilter, 1L);
+        assertThat(send(clientFilter, userFilter, 2L).getStatus()).as("other user").isEqualTo(200);
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        assertThat(limited.getContentAsString()).contains("Rate limit exceeded");
+    }
+
+    @Test
+    void clientLimitRejectsBeforeAuthentication() throws Exception {
+        RateLimitProperties properties = properties(limit(1), limit(100));
+        Filter clientFilter = new RateLimitFilter(RateLimitFilter.Scope.CLIENT_IP, properties, metricsService);
+        Filter userFilter = new RateLimitFilter(RateLimitFilter.Scope.USER, properties, metricsService);
+
+        assertThat(send(clientFilter, userFilter, 1L).getStatus()).isEqualTo(200);
+        MockHttpServletResponse limited = send(clientFilter, userFilter, 2L);
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+    }
+
+    @Test
+    void routesWithoutLimitPassThrough() throws Exception {
+        RateLimitProperties properties = properties(limit(1), limit(1));
+        Filter clientFilter = new RateLimitFilter(RateLimitFilter.Scope.CLIENT_IP, properties, metricsService);
+        Filter userFilter = new RateLimitFilter(RateLimitFilter.Scope.USER, properties, metricsService);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/assets");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            new MockFilterChain(new OkServlet(), clientFilter, userFilter).doFilter(request, response);
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    /**
+     * Client limit, then authentication as {@code userId}, then user limit, as in the security chain.
+     */
+    private static MockHttpServletResponse send(Filter clientFilter, Filter userFilter, long userId)
+            throws IOException, ServletException {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ROUTE + "/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Filter authenticate = (req, res, chain) -> {
+            UserPrincipal principal = new UserPrincipal(userId, "user" + userId, "user" + userId + "@example.com",
+                    null, true, List.of());
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            chain.doFilter(req, res);
+        };
+        new MockFilterChain(new OkServlet(), clientFilter, authenticate, userFilter).doFilter(request, response);
+        return response;
+    }
+
+    private static RateLimitProperties properties(RateLimitProperties.Limit perIp, RateLimitProperties.Limit perUser) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPrefix(ROUTE);
+        route.setPerIp(perIp);
+        route.setPerUser(perUser);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setStripes(4);
+        properties.setRoutes(List.of(route));
+        return properties;
+    }
+
+    // One token a minute, so a drained bucket asks for a 60 second wait
+    private static RateLimitProperties.Limit limit(long capacity) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(1.0 / 60);
+        return limit;
+    }
+
+    private static class OkServlet extends HttpServlet {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+    }
+}
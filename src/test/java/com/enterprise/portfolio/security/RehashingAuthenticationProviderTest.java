@@ -0,0 +1,62 @@
+package com.enterprise.portfolio.security;
+
+import com.enterprise.portfolio.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RehashingAuthenticationProviderTest {
+
+    private static final String OLD_HASH = "$2a$08$old";
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final UserDetailsPasswordService passwordService = mock(UserDetailsPasswordService.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private RehashingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new RehashingAuthenticationProvider(passwordService);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(new UserPrincipal(1L, "alice", "alice@example.com", OLD_HASH, true, List.of()));
+        when(passwordEncoder.matches("secret", OLD_HASH)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(OLD_HASH)).thenReturn(true);
+    }
+
+    @Test
+    void outdatedHashIsReEncodedOnLogin() {
+        when(passwordEncoder.encode("secret")).thenReturn("$2a$10$new");
+        when(passwordService.updatePassword(any(), eq("$2a$10$new"))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Authentication result = provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        assertThat(result.isAuthenticated()).isTrue();
+        verify(passwordService).updatePassword(any(), eq("$2a$10$new"));
+    }
+
+    @Test
+    void loginSucceedsWithoutUpgradeWhenHashingPoolIsSaturated() {
+        when(passwordEncoder.encode("secret")).thenThrow(new TooManyRequestsException("busy", 1));
+
+        Authentication result = provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        assertThat(result.isAuthenticated()).isTrue();
+        verify(passwordService, never()).updatePassword(any(), any());
+    }
+}
@@ -0,0 +1,52 @@
+package com.enterprise.portfolio.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstUpToCapacityThenWaitForRefill() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 1, 4);
+
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isZero();
+        assertThat(limiter.tryAcquire("a", 0)).isEqualTo(SECOND);
+        assertThat(limiter.tryAcquire("a", SECOND / 4)).isEqualTo(SECOND * 3 / 4);
+        assertThat(limiter.tryAcquire("a", SECOND)).isZero();
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 4);
+        limiter.tryAcquire("a", 0);
+
+        long later = 100 * SECOND;
+        assertThat(limiter.tryAcquire("a", later)).isZero();
+        assertThat(limiter.tryAcquire("a", later)).isZero();
+        assertThat(limiter.tryAcquire("a", later)).isPositive();
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 4);
+
+        assertThat(limiter.tryAcquire(1L, 0)).isZero();
+        assertThat(limiter.tryAcquire(1L, 0)).isPositive();
+        assertThat(limiter.tryAcquire(2L, 0)).isZero();
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidLimitIsRejected() {
+        assertThatThrownBy(() -> new TokenBucketLimiter(0, 1, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketLimiter(1, 0, 4)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,125 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.model.Transaction.TransactionType;
+import com.enterprise.portfolio.repository.projection.LedgerEntry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AnalyticsEngineTest {
+
+    private static final long ASSET = 1L;
+    private static final LocalDate FROM = LocalDate.of(2023, 1, 1);
+    private static final LocalDate OPENING_DAY = FROM.minusDays(1);
+
+    @Test
+    void xirrOfOneYearHoldingIsItsSimpleReturn() {
+        // 10 units bought at 100 the day before the range, worth 110 on the last day of a 365-day range
+        AnalyticsEngine engine = engine(LocalDate.of(2023, 12, 31),
+                closes(OPENING_DAY, 100, LocalDate.of(2023, 12, 31), 110));
+        engine.accept(buy(OPENING_DAY, 10, 100));
+
+        AnalyticsEngine.Result result = engine.finish();
+
+        assertThat(result.openingValue()).isCloseTo(1000, within(1e-9));
+        assertThat(result.closingValue()).isCloseTo(1100, within(1e-9));
+        assertThat(result.netFlows()).isZero();
+        assertThat(result.moneyWeightedReturn()).isCloseTo(0.10, within(1e-9));
+        assertThat(result.timeWeightedReturn()).isCloseTo(0.10, within(1e-9));
+        assertThat(result.annualizedTimeWeightedReturn()).isCloseTo(0.10, within(1e-9));
+        assertThat(result.maxDrawdown()).isZero();
+    }
+
+    @Test
+    void xirrIsUndefinedWithoutSignChange() {
+        // The whole opening value is lost, so no flow is ever positive
+        AnalyticsEngine engine = engine(LocalDate.of(2023, 12, 31),
+                closes(OPENING_DAY, 100, LocalDate.of(2023, 12, 31), 0));
+        engine.accept(buy(OPENING_DAY, 10, 100));
+
+        AnalyticsEngine.Result result = engine.finish();
+
+        assertThat(result.moneyWeightedReturn()).isNaN();
+        assertThat(result.timeWeightedReturn()).isCloseTo(-1, within(1e-9));
+        assertThat(result.maxDrawdown()).isCloseTo(-1, within(1e-9));
+    }
+
+    @Test
+    void emptyLedgerHasNoReturns() {
+        AnalyticsEngine engine = engine(LocalDate.of(2023, 3, 31), Map.of());
+
+        AnalyticsEngine.Result result = engine.finish();
+
+        assertThat(result.openingValue()).isZero();
+        assertThat(result.closingValue()).isZero();
+        assertThat(result.netFlows()).isZero();
+        assertThat(result.moneyWeightedReturn()).isNaN();
+        assertThat(result.timeWeightedReturn()).isNaN();
+        assertThat(result.annualizedTimeWeightedReturn()).isNaN();
+        assertThat(result.volatility()).isNaN();
+        assertThat(result.maxDrawdown()).isZero();
+    }
+
+    @Test
+    void singleDayRangeAnnualizesOneDailyReturn() {
+        AnalyticsEngine engine = engine(FROM, closes(OPENING_DAY, 100, FROM, 100.01));
+        engine.accept(buy(OPENING_DAY, 10, 100));
+
+        AnalyticsEngine.Result result = engine.finish();
+
+        double annualized = Math.pow(1.0001, AnalyticsEngine.DAYS_PER_YEAR) - 1;
+        assertThat(result.timeWeightedReturn()).isCloseTo(0.0001, within(1e-12));
+        assertThat(result.annualizedTimeWeightedReturn()).isCloseTo(annualized, within(1e-9));
+        assertThat(result.moneyWeightedReturn()).isCloseTo(annualized, within(1e-7));
+        // A single daily return has no sample deviation
+        assertThat(result.volatility()).isNaN();
+    }
+
+    @Test
+    void drawdownOfFallingSeriesIsTotalDecline() {
+        LocalDate to = FROM.plusDays(3);
+        AnalyticsEngine engine = engine(to, closes(OPENING_DAY, 100, FROM, 90, FROM.plusDays(1), 80,
+                FROM.plusDays(2), 70, to, 60));
+        engine.accept(buy(OPENING_DAY, 1, 100));
+
+        assertThat(engine.finish().maxDrawdown()).isCloseTo(-0.4, within(1e-12));
+    }
+
+    @Test
+    void risingSeriesHasNoDrawdown() {
+        LocalDate to = FROM.plusDays(3);
+        AnalyticsEngine engine = engine(to, closes(OPENING_DAY, 100, FROM, 101, FROM.plusDays(1), 105,
+                FROM.plusDays(2), 106, to, 120));
+        engine.accept(buy(OPENING_DAY, 1, 100));
+
+        AnalyticsEngine.Result result = engine.finish();
+
+        assertThat(result.maxDrawdown()).isZero();
+        assertThat(result.timeWeightedReturn()).isCloseTo(0.20, within(1e-12));
+    }
+
+    private static AnalyticsEngine engine(LocalDate to, Map<Long, NavigableMap<LocalDate, BigDecimal>> closes) {
+        return new AnalyticsEngine(FROM, to, List.of(ASSET), closes);
+    }
+
+    private static Map<Long, NavigableMap<LocalDate, BigDecimal>> closes(Object... dayAndPrice) {
+        NavigableMap<LocalDate, BigDecimal> closes = new TreeMap<>();
+        for (int i = 0; i < dayAndPrice.length; i += 2) {
+            closes.put((LocalDate) dayAndPrice[i], BigDecimal.valueOf(((Number) dayAndPrice[i + 1]).doubleValue()));
+        }
+        return Map.of(ASSET, closes);
+    }
+
+    private static LedgerEntry buy(LocalDate day, double quantity, double price) {
+        return new LedgerEntry(1L, ASSET, TransactionType.BUY, BigDecimal.valueOf(quantity), BigDecimal.valueOf(price),
+                BigDecimal.valueOf(quantity * price), null, day.atStartOfDay());
+    }
+}
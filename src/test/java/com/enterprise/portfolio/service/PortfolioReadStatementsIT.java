@@ -0,0 +1,148 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.CursorPageDto;
+import com.enterprise.portfolio.dto.PortfolioAnalyticsDto;
+import com.enterprise.portfolio.dto.PortfolioValuationDto;
+import com.enterprise.portfolio.dto.PortfolioValueSeriesDto;
+import com.enterprise.portfolio.dto.TransactionDto;
+import com.enterprise.portfolio.exception.ResourceNotFoundException;
+import com.enterprise.portfolio.support.MySqlIntegrationTest;
+import com.enterprise.portfolio.support.StatementRecorder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts the statements each portfolio read endpoint sends to the database. Ownership is part of the query
+ * of every read, so an endpoint costs one statement; the exceptions are cold caches, which check ownership
+ * and then read the ledger, and an empty history page, which needs a second look to tell "no rows" from
+ * "not yours".
+ * Calls run outside an HTTP request, so {@link PortfolioOwnershipCache} never short-cuts a check.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PortfolioReadStatementsIT extends MySqlIntegrationTest {
+
+    private static final LocalDate FROM = LocalDate.of(2021, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2021, 3, 31);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PortfolioService portfolioService;
+
+    private long userId;
+    private long otherUserId;
+    private long portfolioId;
+    private long coldPortfolioId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (username, email, password, token_version) VALUES "
+                + "('counter', 'counter@example.com', 'x', 0), ('counter-other', 'counter-other@example.com', 'x', 0)");
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'counter'", Long.class);
+        otherUserId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'counter-other'", Long.class);
+        jdbcTemplate.update("INSERT INTO assets (symbol, name, asset_type, current_price, version) VALUES "
+                + "('CNT1', 'Counter asset 1', 'STOCK', 12, 0), ('CNT2', 'Counter asset 2', 'STOCK', 30, 0)");
+        jdbcTemplate.update("INSERT INTO portfolios (user_id, name, version) VALUES (?, 'Counted', 0)", userId);
+        jdbcTemplate.update("INSERT INTO portfolios (user_id, name, version) VALUES (?, 'Never charted', 0)", userId);
+        portfolioId = jdbcTemplate.queryForObject("SELECT id FROM portfolios WHERE user_id = ? AND name = 'Counted'",
+                Long.class, userId);
+        coldPortfolioId = jdbcTemplate.queryForObject(
+                "SELECT id FROM portfolios WHERE user_id = ? AND name = 'Never charted'", Long.class, userId);
+        jdbcTemplate.update("INSERT INTO portfolio_summary (portfolio_id, user_id, portfolio_name, version) "
+                + "VALUES (?, ?, 'Counted', 0)", portfolioId, userId);
+        jdbcTemplate.update("INSERT INTO holdings (portfolio_id, asset_id, quantity, average_purchase_price, "
+                + "total_investment, current_value, profit_loss, version) "
+                + "SELECT ?, a.id, 10, 10, 100, a.current_price * 10, a.current_price * 10 - 100, 0 FROM assets a "
+                + "WHERE a.symbol LIKE 'CNT%'", portfolioId);
+        jdbcTemplate.update("INSERT INTO transactions (portfolio_id, asset_id, type, quantity, price_per_unit, "
+                + "total_amount, transaction_date, version) "
+                + "SELECT ?, a.id, 'BUY', 10, 10, 100, TIMESTAMP('2021-01-04 10:00:00') + INTERVAL a.id % 2 DAY, 0 "
+                + "FROM assets a WHERE a.symbol LIKE 'CNT%'", portfolioId);
+        jdbcTemplate.update("INSERT INTO price_bars (asset_id, resolution, bucket_start, open, high, low, close, "
+                + "open_at, close_at, tick_count) "
+                + "WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 150) "
+                + "SELECT a.id, '1d', TIMESTAMP('2020-12-01') + INTERVAL n DAY, 1, 1, 1, 10 + n / 10, "
+                + "TIMESTAMP('2020-12-01') + INTERVAL n DAY, TIMESTAMP('2020-12-01') + INTERVAL n DAY, 1 "
+                + "FROM assets a JOIN seq WHERE a.symbol LIKE 'CNT%'");
+    }
+
+    @Test
+    void portfolioListAndDetailsTakeOneStatement() {
+        assertThat(count(() -> portfolioService.getUserPortfolios(userId))).hasSize(1);
+        assertThat(count(() -> portfolioService.getUserPortfolioSummaries(userId))).hasSize(1);
+        assertThat(count(() -> portfolioService.getPortfolio(portfolioId, userId))).hasSize(1);
+        assertThat(countFailure(() -> portfolioService.getPortfolio(portfolioId, otherUserId))).hasSize(1);
+    }
+
+    @Test
+    void valuationTakesOneStatement() {
+        AtomicReference<PortfolioValuationDto> valuation = new AtomicReference<>();
+
+        assertThat(count(() -> valuation.set(portfolioService.getPortfolioValuation(portfolioId, userId)))).hasSize(1);
+        assertThat(valuation.get().getHoldingCount()).isEqualTo(2);
+        assertThat(countFailure(() -> portfolioService.getPortfolioValuation(portfolioId, otherUserId))).hasSize(1);
+    }
+
+    @Test
+    void historyPageTakesOneStatement() {
+        AtomicReference<CursorPageDto<TransactionDto>> page = new AtomicReference<>();
+
+        assertThat(count(() -> page.set(portfolioService.getTransactionHistory(
+                portfolioId, userId, null, null, null, null, null, 50)))).hasSize(1);
+        assertThat(page.get().getContent()).hasSize(2);
+        // Empty pages fall back to an ownership check
+        assertThat(countFailure(() -> portfolioService.getTransactionHistory(
+                portfolioId, otherUserId, null, null, null, null, null, 50))).hasSize(2);
+    }
+
+    @Test
+    void cachedAnalyticsTakeOneStatement() {
+        AtomicReference<PortfolioAnalyticsDto> analytics = new AtomicReference<>();
+
+        // Cache miss: ownership and first transaction, asset ids, daily closes, ledger
+        assertThat(count(() -> analytics.set(portfolioService.getAnalytics(portfolioId, userId, FROM, TO)))).hasSize(4);
+        assertThat(analytics.get().getClosingValue()).isPositive();
+        assertThat(count(() -> portfolioService.getAnalytics(portfolioId, userId, FROM, TO))).hasSize(1);
+        assertThat(countFailure(() -> portfolioService.getAnalytics(portfolioId, otherUserId, FROM, TO))).hasSize(1);
+    }
+
+    @Test
+    void valueSeriesOfMemoizedLedgerTakesOneStatement() {
+        AtomicReference<PortfolioValueSeriesDto> series = new AtomicReference<>();
+
+        // Cold timeline: ownership, the ledger fold, then the owned daily closes
+        assertThat(count(() -> series.set(portfolioService.getValueSeries(portfolioId, userId, FROM, TO)))).hasSize(3);
+        assertThat(series.get().getPoints().get(series.get().getPoints().size() - 1).getValue()).isPositive();
+        assertThat(count(() -> portfolioService.getValueSeries(portfolioId, userId, FROM, TO))).hasSize(1);
+        assertThat(countFailure(() -> portfolioService.getValueSeries(portfolioId, otherUserId, FROM, TO))).hasSize(1);
+    }
+
+    @Test
+    void valueSeriesOfForeignPortfolioIsRejectedBeforeTheLedgerIsRead() {
+        List<String> statements = countFailure(
+                () -> portfolioService.getValueSeries(coldPortfolioId, otherUserId, FROM, TO));
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).doesNotContainIgnoringCase("transactions");
+    }
+
+    private static List<String> count(Runnable call) {
+        return StatementRecorder.record(call);
+    }
+
+    private static List<String> countFailure(Supplier<?> call) {
+        return StatementRecorder.record(() -> assertThatThrownBy(call::get)
+                .isInstanceOf(ResourceNotFoundException.class));
+    }
+}
@@ -0,0 +1,91 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.PriceBarDto;
+import com.enterprise.portfolio.exception.BadRequestException;
+import com.enterprise.portfolio.repository.PriceHistoryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PriceHistoryServiceTest {
+
+    private static final long ASSET = 7;
+
+    private final PriceHistoryRepository repository = mock(PriceHistoryRepository.class);
+    private final PriceHistoryService service = new PriceHistoryService(repository,
+            Duration.ofDays(7), Duration.ofDays(30), Duration.ofDays(730));
+
+    @Test
+    void minuteBasedResolutionsPastMinuteRetentionAreRejected() {
+        LocalDateTime from = LocalDateTime.now().minusDays(40).truncatedTo(ChronoUnit.HOURS);
+
+        for (String resolution : List.of("1m", "15m", "90m")) {
+            assertThatThrownBy(() -> service.getSeries(ASSET, from, from.plusDays(2), resolution))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("1m bars, which are kept for 30 days");
+        }
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void hourBasedResolutionsPastHourRetentionAreRejected() {
+        LocalDateTime from = LocalDateTime.now().minusDays(800).truncatedTo(ChronoUnit.DAYS);
+
+        assertThatThrownBy(() -> service.getSeries(ASSET, from, from.plusDays(30), "4h"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("1h bars, which are kept for 730 days")
+                .hasMessageContaining("multiple of 1d");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void rawTicksPastRawRetentionAreRejected() {
+        LocalDateTime from = LocalDateTime.now().minusDays(8);
+
+        assertThatThrownBy(() -> service.getSeries(ASSET, from, from.plusHours(1), "raw"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("kept for 7 days");
+    }
+
+    @Test
+    void dailyBarsAreServedForAnyRange() {
+        LocalDateTime from = LocalDateTime.of(2001, 1, 1, 0, 0);
+        when(repository.findBars(anyLong(), eq("1d"), any(), any())).thenReturn(List.of(
+                bar(from, "10", "12"), bar(from.plusDays(1), "12", "11"), bar(from.plusDays(7), "11", "15")));
+
+        List<PriceBarDto> weekly = service.getSeries(ASSET, from, from.plusDays(14), "7d");
+
+        verify(repository).findBars(ASSET, "1d", from, from.plusDays(14));
+        assertThat(weekly).hasSize(2);
+        assertThat(weekly.get(0).getOpen()).isEqualByComparingTo("10");
+        assertThat(weekly.get(0).getClose()).isEqualByComparingTo("11");
+    }
+
+    @Test
+    void recentMinuteBarsAreServed() {
+        LocalDateTime from = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.HOURS);
+        when(repository.findBars(anyLong(), eq("1m"), any(), any())).thenReturn(List.of(bar(from, "10", "11")));
+
+        assertThat(service.getSeries(ASSET, from, from.plusHours(3), "15m")).hasSize(1);
+    }
+
+    private static PriceHistoryRepository.Bar bar(LocalDateTime time, String open, String close) {
+        BigDecimal o = new BigDecimal(open);
+        BigDecimal c = new BigDecimal(close);
+        return new PriceHistoryRepository.Bar(time, o, o.max(c), o.min(c), c, 1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.enterprise.portfolio.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RebalancePlannerTest {
+
+    private static final int A = 0;
+    private static final int B = 1;
+    private static final int[] HELD = {A, B};
+    private static final double[] HALF_AND_HALF = {0.5, 0.5};
+
+    @Test
+    void buysAreRoundedDownToWholeLots() {
+        // Selling 50 A raises 500, which buys 16.7 B; lots of 5 round that down to 15
+        RebalancePlanner planner = planner(new double[]{10, 30}, HALF_AND_HALF, new double[]{1, 5}, 0, 0, 0, 0);
+
+        RebalancePlanner.Plan plan = planner.plan(HELD, new double[]{100, 0});
+
+        assertThat(plan.totalValue).isEqualTo(1000);
+        assertThat(plan.size).isEqualTo(2);
+        assertOrder(plan, 0, A, -50);
+        assertOrder(plan, 1, B, 15);
+    }
+
+    @Test
+    void buysAreScaledToSaleProceedsNetOfFees() {
+        // The sale of 500 nets 494 after a 1 + 1% fee; the buy is scaled so that it and its own fee fit in that
+        RebalancePlanner planner = planner(new double[]{10, 10}, HALF_AND_HALF, new double[]{1, 1}, 0, 0.01, 1, 0);
+
+        RebalancePlanner.Plan plan = planner.plan(HELD, new double[]{100, 0});
+
+        assertThat(plan.size).isEqualTo(2);
+        assertOrder(plan, 0, A, -50);
+        assertThat(plan.fees[0]).isCloseTo(6, within(1e-9));
+        assertOrder(plan, 1, B, 48);
+        assertThat(plan.fees[1]).isCloseTo(5.8, within(1e-9));
+        double proceeds = 500 - plan.fees[0];
+        assertThat(48 * 10 + plan.fees[1]).isLessThanOrEqualTo(proceeds);
+    }
+
+    @Test
+    void driftWithinBandIsLeftAlone() {
+        // 52/48 is 2% off target
+        double[] quantities = {52, 48};
+
+        RebalancePlanner.Plan inside = planner(new double[]{10, 10}, HALF_AND_HALF, new double[]{1, 1}, 0.03, 0, 0, 0)
+                .plan(HELD, quantities);
+        RebalancePlanner.Plan outside = planner(new double[]{10, 10}, HALF_AND_HALF, new double[]{1, 1}, 0.01, 0, 0, 0)
+                .plan(HELD, quantities);
+
+        assertThat(inside.size).isZero();
+        assertThat(outside.size).isEqualTo(2);
+        assertOrder(outside, 0, A, -2);
+        assertOrder(outside, 1, B, 2);
+    }
+
+    @Test
+    void ordersBelowMinimumValueAreDropped() {
+        // Trading 2 units of each is worth 20, below the minimum of 50; without the sale there is no budget to buy
+        RebalancePlanner planner = planner(new double[]{10, 10}, HALF_AND_HALF, new double[]{1, 1}, 0, 0, 0, 50);
+
+        assertThat(planner.plan(HELD, new double[]{52, 48}).size).isZero();
+        assertThat(planner.plan(HELD, new double[]{60, 40}).size).isEqualTo(2);
+    }
+
+    @Test
+    void zeroWeightHoldingIsLiquidated() {
+        RebalancePlanner planner = planner(new double[]{10, 10}, new double[]{0, 1}, new double[]{1, 1}, 0, 0, 0, 0);
+
+        RebalancePlanner.Plan plan = planner.plan(HELD, new double[]{7.5, 10});
+
+        assertThat(plan.size).isEqualTo(2);
+        assertOrder(plan, 0, A, -7.5);
+        assertThat(plan.liquidations[0]).isTrue();
+        assertOrder(plan, 1, B, 7);
+        assertThat(plan.liquidations[1]).isFalse();
+    }
+
+    private static RebalancePlanner planner(double[] prices, double[] weights, double[] lotSizes,
+                                            double driftBand, double feeRate, double fixedFee, double minOrderValue) {
+        return new RebalancePlanner(prices, weights, new int[prices.length], new double[1], lotSizes,
+                driftBand, feeRate, fixedFee, minOrderValue);
+    }
+
+    private static void assertOrder(RebalancePlanner.Plan plan, int order, int slot, double quantity) {
+        assertThat(plan.slots[order]).isEqualTo(slot);
+        assertThat(plan.quantities[order]).isCloseTo(quantity, within(1e-9));
+    }
+}
@@ -0,0 +1,128 @@
+package com.enterprise.portfolio.service;
+
+import com.enterprise.portfolio.dto.TransactionImportResultDto;
+import com.enterprise.portfolio.model.Asset;
+import com.enterprise.portfolio.model.Transaction.TransactionType;
+import com.enterprise.portfolio.repository.AssetRepository;
+import com.enterprise.portfolio.repository.TransactionBatchWriter;
+import com.enterprise.portfolio.repository.TransactionLedgerReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionImportServiceTest {
+
+    private static final long SOURCE = 1;
+    private static final long TARGET = 2;
+
+    private final TransactionLedgerReader ledgerReader = mock(TransactionLedgerReader.class);
+    private final TransactionBatchWriter batchWriter = mock(TransactionBatchWriter.class);
+    private final AssetRepository assetRepository = mock(AssetRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<TransactionBatchWriter.Row> written = new ArrayList<>();
+    private TransactionImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(batchWriter.insertBatch(eq(TARGET), anyList(), anyString())).thenAnswer(invocation -> {
+            List<TransactionBatchWriter.Row> rows = invocation.getArgument(1);
+            written.addAll(rows);
+            return rows.size();
+        });
+        Asset asset = new Asset();
+        asset.setId(42L);
+        when(assetRepository.findBySymbol("ACME")).thenReturn(Optional.of(asset));
+        importService = new TransactionImportService(batchWriter, assetRepository, mock(LedgerService.class),
+                objectMapper, transactionManager, 1000, 100);
+    }
+
+    @Test
+    void csvExportWithMultiLineNotesImportsAsIs() throws IOException {
+        List<String> notes = List.of("plain", "two\nlines", "windows\r\nbreak", "quoted \"word\", comma", "");
+        List<TransactionLedgerReader.Row> ledger = new ArrayList<>();
+        for (int i = 0; i < notes.size(); i++) {
+            ledger.add(new TransactionLedgerReader.Row(i + 1, LocalDateTime.of(2024, 3, 1 + i, 10, 30),
+                    TransactionType.BUY, "ACME", BigDecimal.valueOf(i + 1), new BigDecimal("12.50"),
+                    new BigDecimal("12.50").multiply(BigDecimal.valueOf(i + 1)), BigDecimal.ONE, notes.get(i)));
+        }
+        doAnswer(invocation -> {
+            Consumer<TransactionLedgerReader.Row> consumer = invocation.getArgument(1);
+            ledger.forEach(consumer);
+            return null;
+        }).when(ledgerReader).forEach(eq(SOURCE), any());
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        new TransactionExportService(ledgerReader, objectMapper)
+                .exportTransactions(SOURCE, TransactionImportService.Format.CSV, exported);
+        TransactionImportResultDto result = importService.importTransactions(TARGET,
+                TransactionImportService.Format.CSV, new ByteArrayInputStream(exported.toByteArray()), "importer");
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getRowsRead()).isEqualTo(notes.size());
+        assertThat(result.getRowsImported()).isEqualTo(notes.size());
+        for (int i = 0; i < notes.size(); i++) {
+            TransactionBatchWriter.Row row = written.get(i);
+            TransactionLedgerReader.Row original = ledger.get(i);
+            assertThat(row.assetId()).isEqualTo(42L);
+            assertThat(row.transactionDate()).isEqualTo(original.transactionDate());
+            assertThat(row.quantity()).isEqualByComparingTo(original.quantity());
+            assertThat(row.totalAmount()).isEqualByComparingTo(original.totalAmount());
+            assertThat(row.notes()).isEqualTo(notes.get(i));
+        }
+    }
+
+    @Test
+    void rejectedRowsReportTheLineTheirRecordStartsOn() {
+        String csv = "date,type,symbol,quantity,price,notes\n"
+                + "2024-01-02,BUY,ACME,1,10,\"first\nsecond\"\n"
+                + "2024-01-03,BUY,NOPE,1,10,x\n"
+                + "2024-01-04,BUY,ACME,1,10,\"never closed\n";
+
+        TransactionImportResultDto result = importService.importTransactions(TARGET,
+                TransactionImportService.Format.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "importer");
+
+        assertThat(result.getRowsImported()).isEqualTo(1);
+        assertThat(written.get(0).notes()).isEqualTo("first\nsecond");
+        assertThat(result.getErrors()).containsExactly(
+                "line 4: unknown asset symbol 'NOPE'",
+                "line 5: unterminated quoted field");
+    }
+
+    @Test
+    void csvReaderSplitsRecordsNotLines() throws IOException {
+        TransactionImportService.CsvReader reader = new TransactionImportService.CsvReader(
+                new StringReader("a,\"b\"\"c\",\"d\r\ne\"\r\n\nlast"));
+
+        assertThat(reader.next()).containsExactly("a", "b\"c", "d\r\ne");
+        assertThat(reader.next()).containsExactly("");
+        assertThat(reader.next()).containsExactly("last");
+        assertThat(reader.recordLine()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+}
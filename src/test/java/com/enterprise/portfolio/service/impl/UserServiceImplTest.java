@@ -0,0 +1,36 @@
+package com.enterprise.portfolio.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserServiceImplTest {
+
+    @Test
+    void unsortedPagesAreOrderedById() {
+        Pageable pageable = UserServiceImpl.withIdTieBreaker(PageRequest.of(2, 20));
+
+        assertThat(pageable.getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getPageSize()).isEqualTo(20);
+        assertThat(pageable.getSort()).isEqualTo(Sort.by("id"));
+    }
+
+    @Test
+    void requestedSortKeepsPrecedenceWithIdAsTieBreaker() {
+        Pageable pageable = UserServiceImpl.withIdTieBreaker(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(pageable.getSort()).isEqualTo(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.asc("id")));
+    }
+
+    @Test
+    void explicitIdSortIsKept() {
+        Pageable requested = PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "id"));
+
+        assertThat(UserServiceImpl.withIdTieBreaker(requested)).isSameAs(requested);
+        assertThat(UserServiceImpl.withIdTieBreaker(Pageable.unpaged())).isEqualTo(Pageable.unpaged());
+    }
+}
@@ -0,0 +1,38 @@
+package com.enterprise.portfolio.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Base for integration tests against a real MySQL 8 with the Flyway schema applied. One server is shared by
+ * all subclasses (and their cached Spring context) and started on first use; without Docker the tests are
+ * skipped. Statements can be captured through {@link StatementRecorder}; scheduled jobs are pushed out of the
+ * test run so they do not show up in the captured statements.
+ */
+@SpringBootTest(properties = {
+        "app.jwt.secret=1KbhmWTbJIfbhCcFlKPHb+SMLNMLC/vgUsb62G8YVu5jCe1hCbfwJMGxuHx7lnZp",
+        "app.jwt.refresh-purge-interval-ms=86400000",
+        "app.security.token-version-refresh-ms=86400000",
+        "app.prices.flush-interval-ms=86400000",
+        "app.prices.table-reload-interval-ms=86400000"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlIntegrationTest {
+
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>(DockerImageName.parse("mysql:8.0.35"))
+            .withUrlParam("queryInterceptors", StatementRecorder.class.getName());
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (!MYSQL.isRunning()) {
+            MYSQL.start();
+        }
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+}
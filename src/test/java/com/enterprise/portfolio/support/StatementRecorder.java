@@ -0,0 +1,85 @@
+package com.enterprise.portfolio.support;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Connector/J interceptor that captures the SQL sent to the server while {@link #record(Runnable)} runs.
+ * Client-side prepared statements are captured with their parameter values inlined, so each one can be
+ * re-run under {@code EXPLAIN}. Statements from every thread are captured, including pool threads a
+ * service fans out to; session housekeeping ({@code SET ...}, {@code commit}, {@code select @@...}) is not.
+ */
+public class StatementRecorder implements QueryInterceptor {
+
+    private static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+    private static volatile boolean recording;
+
+    /**
+     * Run {@code action} and return the data statements it sent, in order.
+     */
+    public static synchronized List<String> record(Runnable action) {
+        STATEMENTS.clear();
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        List<String> statements = new ArrayList<>(STATEMENTS);
+        STATEMENTS.clear();
+        return statements;
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        if (recording) {
+            String statement = sql.get().trim();
+            if (isDataStatement(statement)) {
+                STATEMENTS.add(statement);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+                                               ServerSession serverSession) {
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    private static boolean isDataStatement(String statement) {
+        String lower = statement.toLowerCase(Locale.ROOT);
+        return (lower.startsWith("select") && !lower.startsWith("select @@"))
+                || lower.startsWith("insert")
+                || lower.startsWith("update")
+                || lower.startsWith("delete")
+                || lower.startsWith("with")
+                || lower.startsWith("(");
+    }
+}
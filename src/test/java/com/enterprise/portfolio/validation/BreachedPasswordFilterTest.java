@@ -0,0 +1,93 @@
+package com.enterprise.portfolio.validation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BreachedPasswordFilterTest {
+
+    private static final int LISTED = 2000;
+    private static final int SAMPLED = 10000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void listedPasswordsHitAndOthersMostlyMiss() throws IOException {
+        BreachedPasswordFilter filter = load(build(0.001));
+
+        assertThat(filter.isEnabled()).isTrue();
+        assertThat(IntStream.range(0, LISTED).filter(i -> !filter.mightContain("breached-" + i)))
+                .as("listed passwords reported as clean").isEmpty();
+        long falsePositives = IntStream.range(0, SAMPLED).filter(i -> filter.mightContain("unlisted-" + i)).count();
+        // 0.1% of 10000 is 10 on average; 40 leaves room for variance without hiding a broken filter
+        assertThat(falsePositives).isLessThan(40);
+    }
+
+    @Test
+    void unconfiguredFilterIsDisabled() throws IOException {
+        BreachedPasswordFilter filter = new BreachedPasswordFilter("");
+
+        assertThat(filter.isEnabled()).isFalse();
+        assertThat(filter.mightContain("breached-0")).isFalse();
+    }
+
+    @Test
+    void headerWithoutHashesIsRejected() throws IOException {
+        Path file = build(0.01);
+        patchHeader(file, 8, ByteBuffer.allocate(4).putInt(0).array());
+
+        assertThatThrownBy(() -> load(file)).isInstanceOf(IllegalStateException.class).hasMessageContaining("0 hashes");
+    }
+
+    @Test
+    void headerWithoutBitsIsRejected() throws IOException {
+        Path file = build(0.01);
+        patchHeader(file, 16, ByteBuffer.allocate(8).putLong(-1).array());
+
+        assertThatThrownBy(() -> load(file)).isInstanceOf(IllegalStateException.class).hasMessageContaining("-1 bits");
+    }
+
+    @Test
+    void foreignFileIsRejected() throws IOException {
+        Path file = Files.writeString(dir.resolve("not-a-filter.bloom"), "x".repeat(64));
+
+        assertThatThrownBy(() -> load(file)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private Path build(double falsePositiveRate) throws IOException {
+        HexFormat hex = HexFormat.of().withUpperCase();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < LISTED; i++) {
+            byte[] digest = BloomFilterFormat.sha1().digest(("breached-" + i).getBytes(StandardCharsets.UTF_8));
+            // Breach corpora append the number of occurrences
+            lines.add(hex.formatHex(digest) + (i % 2 == 0 ? ":" + (i + 1) : ""));
+        }
+        Path list = Files.write(dir.resolve("hashes.txt"), lines);
+        Path output = dir.resolve("breached.bloom");
+        assertThat(BreachedPasswordFilterBuilder.build(list, output, falsePositiveRate)).isEqualTo(LISTED);
+        return output;
+    }
+
+    private static BreachedPasswordFilter load(Path file) throws IOException {
+        return new BreachedPasswordFilter(file.toString());
+    }
+
+    private static void patchHeader(Path file, int offset, byte[] bytes) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        System.arraycopy(bytes, 0, content, offset, bytes.length);
+        Files.write(file, content);
+    }
+}
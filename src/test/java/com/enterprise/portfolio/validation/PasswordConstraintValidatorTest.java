@@ -0,0 +1,93 @@
+package com.enterprise.portfolio.validation;
+
+import jakarta.validation.ConstraintValidatorContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordConstraintValidatorTest {
+
+    private static final String STRONG = "Tr4vel!Kettle";
+
+    private final ConstraintValidatorContext context = mock(ConstraintValidatorContext.class, RETURNS_DEEP_STUBS);
+
+    @Test
+    void strongPasswordIsValid() {
+        assertThat(validator(null, true).isValid(STRONG, context)).isTrue();
+        verify(context, never()).disableDefaultConstraintViolation();
+    }
+
+    @Test
+    void weakPasswordsAreRejected() {
+        PasswordConstraintValidator validator = validator(null, true);
+
+        assertThat(validator.isValid(null, context)).isFalse();
+        assertThat(validator.isValid("Sh0rt!", context)).isFalse();
+        assertThat(validator.isValid("no-upper-case-1", context)).isFalse();
+        assertThat(validator.isValid("Abcdefg!1", context)).isFalse();
+        assertThat(validator.isValid("Has Space!1", context)).isFalse();
+    }
+
+    @Test
+    void breachedPasswordIsRejectedWithItsOwnMessage() {
+        BreachedPasswordFilter filter = filter(true);
+
+        assertThat(validator(filter, true).isValid(STRONG, context)).isFalse();
+        verify(context).buildConstraintViolationWithTemplate(contains(PasswordConstraintValidator.BREACHED_MESSAGE));
+    }
+
+    @Test
+    void breachCheckCanBeTurnedOffPerConstraint() {
+        assertThat(validator(filter(true), false).isValid(STRONG, context)).isTrue();
+    }
+
+    @Test
+    void disabledFilterIsIgnored() {
+        BreachedPasswordFilter filter = mock(BreachedPasswordFilter.class);
+        when(filter.isEnabled()).thenReturn(false);
+
+        assertThat(validator(filter, true).isValid(STRONG, context)).isTrue();
+        verify(filter, never()).mightContain(STRONG);
+    }
+
+    private static BreachedPasswordFilter filter(boolean breached) {
+        BreachedPasswordFilter filter = mock(BreachedPasswordFilter.class);
+        when(filter.isEnabled()).thenReturn(true);
+        when(filter.mightContain(STRONG)).thenReturn(breached);
+        return filter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PasswordConstraintValidator validator(BreachedPasswordFilter filter, boolean rejectBreached) {
+        ObjectProvider<BreachedPasswordFilter> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(filter);
+        PasswordConstraintValidator validator = new PasswordConstraintValidator(provider);
+        validator.initialize(constraint(rejectBreached));
+        return validator;
+    }
+
+    private static ValidPassword constraint(boolean rejectBreached) {
+        try {
+            String field = rejectBreached ? "checked" : "unchecked";
+            return Form.class.getDeclaredField(field).getAnnotation(ValidPassword.class);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Form {
+        @ValidPassword
+        String checked;
+
+        @ValidPassword(rejectBreached = false)
+        String unchecked;
+    }
+}